@@ -0,0 +1,53 @@
+package com.banking.config;
+
+import com.banking.security.UserPrincipal;
+import com.banking.service.ReplicaLagGuard;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections of read-only transactions to the replica and everything
+ * else to the primary. Must sit behind a LazyConnectionDataSourceProxy: the
+ * JPA transaction manager opens its connection before the read-only flag is
+ * bound to the thread, and the proxy defers the lookup to the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLagGuard replicaLagGuard;
+
+    public ReadWriteRoutingDataSource(ReplicaLagGuard replicaLagGuard) {
+        this.replicaLagGuard = replicaLagGuard;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // Start the user's lag window when their write commits
+            if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        replicaLagGuard.recordWrite(userId);
+                    }
+                });
+            }
+            return Target.PRIMARY;
+        }
+        return replicaLagGuard.mustReadPrimary(userId) ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+                ? principal.getId()
+                : null;
+    }
+}
@@ -9,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -19,33 +20,191 @@ public class AccountController {
 
     private final AccountService accountService;
     private final com.banking.service.AuthService authService;
+    private final com.banking.service.BulkTransferService bulkTransferService;
+    private final com.banking.service.TransactionSigningService transactionSigningService;
+    private final com.banking.service.StatementService statementService;
+    private final com.banking.service.DailyBalanceService dailyBalanceService;
+    private final com.banking.service.InsightsService insightsService;
+    private final com.banking.service.TransactionSearchService transactionSearchService;
+    private final com.banking.service.UserVersionService userVersionService;
+    private final com.fasterxml.jackson.databind.ObjectMapper objectMapper;
 
     @GetMapping
-    public List<Account> getUserAccounts(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+    public List<Account> getUserAccounts(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, userVersionService.etag(userPrincipal.getId()))) {
+            return null;
+        }
         return accountService.getUserAccounts(userPrincipal);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Account> getAccountDetails(@AuthenticationPrincipal UserPrincipal userPrincipal,
-            @PathVariable Long id) {
+            @PathVariable Long id, ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, userVersionService.etag(userPrincipal.getId()))) {
+            return null;
+        }
         return ResponseEntity.ok(accountService.getAccountById(userPrincipal, id));
     }
 
     @PostMapping("/transfer")
     public ResponseEntity<Transaction> transferMoney(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestHeader(value = "X-Device-Id", required = false) String deviceId,
             @RequestBody TransferRequest request) {
-        return ResponseEntity.ok(accountService.transferMoney(userPrincipal, request));
+        request.setDeviceId(deviceId);
+        return ResponseEntity.ok(accountService.transferMoney(userPrincipal, request, idempotencyKey));
+    }
+
+    @PostMapping("/signing-session")
+    public ResponseEntity<?> openSigningSession(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestHeader(value = "X-Device-Id", required = false) String deviceId,
+            @RequestBody com.banking.payload.SigningSessionRequest request) {
+        try {
+            return ResponseEntity.ok(transactionSigningService.openSession(userPrincipal, request.getTpin(),
+                    request.getAmountCap(), deviceId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new com.banking.payload.ApiResponse(false, e.getMessage()));
+        }
     }
 
+    @PostMapping("/bulk-transfer")
+    public ResponseEntity<?> bulkTransfer(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam String fromAccountNumber,
+            @RequestParam String tpin,
+            @RequestParam("file") org.springframework.web.multipart.MultipartFile file) {
+        try {
+            return ResponseEntity.accepted()
+                    .body(bulkTransferService.submit(userPrincipal, fromAccountNumber, tpin, file));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new com.banking.payload.ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/bulk-transfer/{jobId}")
+    public ResponseEntity<?> getBulkTransferStatus(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable String jobId, @RequestParam(defaultValue = "0") int afterLine) {
+        try {
+            return ResponseEntity.ok(bulkTransferService.getStatus(userPrincipal, jobId, afterLine));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new com.banking.payload.ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    // Without cursor/limit the full history is returned as before; with either, one keyset page
     @GetMapping("/transactions")
-    public ResponseEntity<?> getAllUserTransactions(@AuthenticationPrincipal UserPrincipal userPrincipal) {
-        return ResponseEntity.ok(accountService.getAllUserTransactions(userPrincipal));
+    public ResponseEntity<?> getAllUserTransactions(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit, ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, userVersionService.etag(userPrincipal.getId()))) {
+            return null;
+        }
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(accountService.getAllUserTransactions(userPrincipal));
+        }
+        try {
+            return ResponseEntity.ok(accountService.getAllUserTransactionsPage(userPrincipal, cursor, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new com.banking.payload.ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/transactions/search")
+    public ResponseEntity<?> searchTransactions(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) java.math.BigDecimal minAmount,
+            @RequestParam(required = false) java.math.BigDecimal maxAmount,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(transactionSearchService.search(userPrincipal, q, minAmount, maxAmount, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new com.banking.payload.ApiResponse(false, e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}/transactions")
     public ResponseEntity<?> getAccountTransactions(@AuthenticationPrincipal UserPrincipal userPrincipal,
-            @PathVariable Long id) {
-        return ResponseEntity.ok(accountService.getAccountTransactions(userPrincipal, id));
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit, ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, userVersionService.etag(userPrincipal.getId()))) {
+            return null;
+        }
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(accountService.getAccountTransactions(userPrincipal, id));
+        }
+        try {
+            return ResponseEntity.ok(accountService.getAccountTransactionsPage(userPrincipal, id, cursor, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new com.banking.payload.ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}/insights")
+    public ResponseEntity<?> getInsights(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer months) {
+        try {
+            return ResponseEntity.ok(insightsService.getInsights(userPrincipal, id, months));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new com.banking.payload.ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}/balance")
+    public ResponseEntity<?> getBalanceAsOf(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable Long id,
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate asOf) {
+        try {
+            return ResponseEntity.ok(dailyBalanceService.balanceAsOf(userPrincipal, id, asOf));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new com.banking.payload.ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}/balance-history")
+    public ResponseEntity<?> getBalanceHistory(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable Long id,
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate from,
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate to) {
+        try {
+            return ResponseEntity.ok(dailyBalanceService.balanceSeries(userPrincipal, id, from, to));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new com.banking.payload.ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    // Typed as StreamingResponseBody so Spring MVC streams it; errors are streamed as the usual ApiResponse JSON
+    @GetMapping("/{id}/statement")
+    public ResponseEntity<org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody> exportStatement(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable Long id,
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate from,
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate to,
+            @RequestParam(defaultValue = "csv") String format) {
+        String error;
+        try {
+            com.banking.service.StatementService.Format type = com.banking.service.StatementService.Format
+                    .valueOf(format.toUpperCase());
+            org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody body = statementService
+                    .export(userPrincipal, id, from, to, type);
+            String fileName = "statement-" + id + "-" + from + "-" + to + "." + type.name().toLowerCase();
+            return ResponseEntity.ok()
+                    .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"" + fileName + "\"")
+                    .contentType(type == com.banking.service.StatementService.Format.PDF
+                            ? org.springframework.http.MediaType.APPLICATION_PDF
+                            : new org.springframework.http.MediaType("text", "csv", java.nio.charset.StandardCharsets.UTF_8))
+                    .body(body);
+        } catch (IllegalArgumentException e) {
+            error = "format must be csv or pdf";
+        } catch (Exception e) {
+            error = e.getMessage();
+        }
+        com.banking.payload.ApiResponse response = new com.banking.payload.ApiResponse(false, error);
+        return ResponseEntity.badRequest()
+                .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, response));
     }
 
     @PostMapping("/send-otp")
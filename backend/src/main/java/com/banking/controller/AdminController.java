@@ -0,0 +1,78 @@
+package com.banking.controller;
+
+import com.banking.payload.ApiResponse;
+import com.banking.security.CustomUserDetailsService;
+import com.banking.security.FirebaseTokenVerifier;
+import com.banking.service.AccountService;
+import com.banking.service.DailyBalanceService;
+import com.banking.service.IdempotencyService;
+import com.banking.service.PrincipalRevocationService;
+import com.banking.service.ReplicaLagGuard;
+import com.banking.service.StandingInstructionScheduler;
+import com.banking.service.TransactionSearchService;
+import com.banking.service.TransactionSigningService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final DailyBalanceService dailyBalanceService;
+    private final PrincipalRevocationService principalRevocationService;
+    private final IdempotencyService idempotencyService;
+    private final TransactionSigningService transactionSigningService;
+    private final StandingInstructionScheduler standingInstructionScheduler;
+    private final AccountService accountService;
+    private final TransactionSearchService transactionSearchService;
+    private final ReplicaLagGuard replicaLagGuard;
+    private final CustomUserDetailsService customUserDetailsService;
+    private final FirebaseTokenVerifier firebaseTokenVerifier;
+
+    // Counters of this instance's caches, batchers and schedulers; /api/health only reports liveness
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("idempotencyCache", idempotencyService.stats());
+        stats.put("transferAuth", transactionSigningService.stats());
+        stats.put("standingInstructions", standingInstructionScheduler.stats());
+        stats.put("groupCommit", accountService.groupCommitStats());
+        stats.put("transactionSearch", transactionSearchService.stats());
+        stats.put("replicaRouting", replicaLagGuard.stats());
+        stats.put("statelessAuth", principalRevocationService.stats());
+        stats.put("principalCache", customUserDetailsService.stats());
+        stats.put("firebaseTokenCache", firebaseTokenVerifier.stats());
+        return ResponseEntity.ok(stats);
+    }
+
+    // Rebuilds one day's end-of-day balances; allAccounts=true seeds rows for accounts without activity
+    @PostMapping("/daily-balances")
+    public ResponseEntity<?> snapshotDailyBalances(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "false") boolean allAccounts) {
+        try {
+            if (!date.isBefore(LocalDate.now())) {
+                throw new RuntimeException("Only past days can be snapshotted");
+            }
+            int written = dailyBalanceService.snapshotDay(date, allAccounts);
+            return ResponseEntity.ok(new ApiResponse(true, "Wrote " + written + " daily balances for " + date));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    // For lock or role changes made directly in the database: the user's existing tokens stop being trusted
+    @PostMapping("/users/{id}/revoke-principal")
+    public ResponseEntity<?> revokePrincipal(@PathVariable Long id) {
+        principalRevocationService.revoke(id);
+        return ResponseEntity.ok(new ApiResponse(true,
+                "Existing tokens of user " + id + " are now checked against the database"));
+    }
+}
@@ -11,7 +11,6 @@ import com.banking.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import com.banking.payload.FirebaseLoginRequest;
-import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseToken;
 import com.banking.security.UserPrincipal;
 import org.springframework.http.HttpStatus;
@@ -48,6 +47,7 @@ public class AuthController {
         private final PasswordEncoder passwordEncoder;
         private final com.banking.service.UserDeviceService userDeviceService;
         private final jakarta.servlet.http.HttpServletRequest httpServletRequest;
+        private final com.banking.security.FirebaseTokenVerifier firebaseTokenVerifier;
 
         @PostMapping("/signin")
         public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
@@ -215,8 +215,7 @@ public class AuthController {
         @PostMapping("/firebase-signin")
         public ResponseEntity<?> authenticateFirebaseUser(@Valid @RequestBody FirebaseLoginRequest loginRequest) {
                 try {
-                        FirebaseToken decodedToken = FirebaseAuth.getInstance()
-                                        .verifyIdToken(loginRequest.getIdToken());
+                        FirebaseToken decodedToken = firebaseTokenVerifier.verify(loginRequest.getIdToken());
                         String email = decodedToken.getEmail();
 
                         if (email == null) {
@@ -224,9 +223,7 @@ public class AuthController {
                                                 .body(new ApiResponse(false, "Firebase token does not contain email"));
                         }
 
-                        User user = userRepository.findByEmail(email).orElseGet(() -> {
-                                return userService.registerFirebaseUser(decodedToken);
-                        });
+                        User user = firebaseTokenVerifier.resolveUser(decodedToken);
 
                         UserPrincipal userPrincipal = UserPrincipal.create(user);
                         Authentication authentication = new UsernamePasswordAuthenticationToken(userPrincipal, null,
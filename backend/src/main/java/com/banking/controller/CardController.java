@@ -9,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.Map;
 
@@ -19,9 +20,14 @@ public class CardController {
 
     private final CardService cardService;
     private final AuthService authService;
+    private final com.banking.service.UserVersionService userVersionService;
 
     @GetMapping
-    public ResponseEntity<?> getCard(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+    public ResponseEntity<?> getCard(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, userVersionService.etag(userPrincipal.getId()))) {
+            return null;
+        }
         return cardService.getCardForUser(userPrincipal)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.noContent().build());
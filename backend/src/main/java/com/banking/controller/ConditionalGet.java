@@ -0,0 +1,25 @@
+package com.banking.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * ETag handling for per-user GET responses. Spring Security marks every
+ * response no-store by default, which would stop clients from keeping the
+ * body to revalidate, so these responses are sent private and no-cache:
+ * clients keep them and revalidate on every poll.
+ */
+final class ConditionalGet {
+
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private ConditionalGet() {
+    }
+
+    // True when If-None-Match matches; the handler then returns null and Spring answers 304
+    static boolean notModified(ServletWebRequest request, String etag) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        return request.checkNotModified(etag);
+    }
+}
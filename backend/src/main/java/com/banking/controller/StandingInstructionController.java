@@ -0,0 +1,42 @@
+package com.banking.controller;
+
+import com.banking.payload.ApiResponse;
+import com.banking.payload.StandingInstructionRequest;
+import com.banking.security.UserPrincipal;
+import com.banking.service.StandingInstructionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/standing-instructions")
+@RequiredArgsConstructor
+public class StandingInstructionController {
+
+    private final StandingInstructionService standingInstructionService;
+
+    @GetMapping
+    public ResponseEntity<?> list(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return ResponseEntity.ok(standingInstructionService.list(userPrincipal));
+    }
+
+    @PostMapping
+    public ResponseEntity<?> create(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestBody StandingInstructionRequest request) {
+        try {
+            return ResponseEntity.ok(standingInstructionService.create(userPrincipal, request));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancel(@AuthenticationPrincipal UserPrincipal userPrincipal, @PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(standingInstructionService.cancel(userPrincipal, id));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+}
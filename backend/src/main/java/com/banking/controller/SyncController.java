@@ -0,0 +1,27 @@
+package com.banking.controller;
+
+import com.banking.security.UserPrincipal;
+import com.banking.service.SyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    // Without a cursor the response is a full snapshot; afterwards only what changed since the cursor
+    @GetMapping
+    public ResponseEntity<?> sync(@AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(syncService.sync(userPrincipal, cursor));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new com.banking.payload.ApiResponse(false, e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.banking.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Balance of an account folded up to and including {@code lastEntryId}.
+ */
+@Entity
+@Immutable
+@Table(name = "balance_snapshots", indexes = {
+        @Index(name = "idx_snapshot_account", columnList = "account_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false, updatable = false)
+    @JsonIgnore
+    private Account account;
+
+    @Column(nullable = false, updatable = false, precision = 15, scale = 2)
+    private BigDecimal balance;
+
+    @Column(nullable = false, updatable = false)
+    private Long lastEntryId;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
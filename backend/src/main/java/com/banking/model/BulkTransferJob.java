@@ -0,0 +1,74 @@
+package com.banking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A bulk transfer file being applied by one instance. The counters are
+ * updated in the same transaction as each chunk of legs, so they always match
+ * what was posted; the owning instance refreshes {@code heartbeatAt} while the
+ * job is unfinished and any instance fails a job whose owner went quiet.
+ */
+@Entity
+@Table(name = "bulk_transfer_jobs", indexes = {
+        @Index(name = "idx_bulk_job_heartbeat", columnList = "completedAt, heartbeatAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransferJob {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String fromAccountNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.QUEUED;
+
+    @Column(nullable = false)
+    private int processed;
+
+    @Column(nullable = false)
+    private int succeeded;
+
+    @Column(nullable = false)
+    private int failed;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalDebited = BigDecimal.ZERO;
+
+    private String message;
+
+    // Instance running the job; only it has the spooled file
+    @Column(nullable = false, length = 36)
+    private String owner;
+
+    @Column(nullable = false)
+    private LocalDateTime heartbeatAt;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
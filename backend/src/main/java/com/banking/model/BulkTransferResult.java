@@ -0,0 +1,44 @@
+package com.banking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome of one line of a bulk transfer file, written with the chunk that
+ * applied it. Line numbers are unique within a job and page the results.
+ */
+@Entity
+@Table(name = "bulk_transfer_results", indexes = {
+        @Index(name = "idx_bulk_result_job_line", columnList = "jobId, lineNumber")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransferResult {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String jobId;
+
+    @Column(nullable = false)
+    private int lineNumber;
+
+    private String toAccountNumber;
+
+    @Column(precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private boolean success;
+
+    private String transactionId;
+
+    private String message;
+}
@@ -0,0 +1,44 @@
+package com.banking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * End-of-day balance of an account, written by
+ * {@link com.banking.service.DailyBalanceService} for days on which the
+ * account had ledger activity. On any later day without a row the balance
+ * is unchanged from the latest row before it.
+ */
+@Entity
+@Table(name = "daily_balances", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_balance_account_date", columnNames = { "account_id", "balance_date" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "balance_date", nullable = false)
+    private LocalDate balanceDate;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal balance;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,38 @@
+package com.banking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Credit accumulator for an account in hot-account mode. Incoming credits are
+ * spread over N slots by a hash of the paying account, so concurrent payers
+ * update different rows; the ledger fold drains the slots into the next
+ * {@link BalanceSnapshot}.
+ */
+@Entity
+@Table(name = "hot_account_slots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_hot_account_slot", columnNames = { "account_id", "slot" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotAccountSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(nullable = false)
+    private Integer slot;
+
+    // Credits received since the slot was last drained
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount = BigDecimal.ZERO;
+}
@@ -0,0 +1,69 @@
+package com.banking.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One leg of a double-entry posting. Entries are only ever inserted; an
+ * account's balance is its latest {@link BalanceSnapshot} plus the entries
+ * written after it.
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_entries", indexes = {
+        // slot before id so tail sums can skip a hot account's slot credits via the index
+        @Index(name = "idx_ledger_account_slot_entry", columnList = "account_id, slot, id"),
+        @Index(name = "idx_ledger_journal", columnList = "journalId"),
+        @Index(name = "idx_ledger_created", columnList = "createdAt"),
+        @Index(name = "idx_ledger_account_created", columnList = "account_id, createdAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    private String journalId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false, updatable = false)
+    @JsonIgnore
+    private Account account;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private Direction direction;
+
+    @Column(nullable = false, updatable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    // Transaction row shown to the account holder for this leg
+    @Column(updatable = false)
+    private String transactionId;
+
+    // Set on credits to a hot account that were also added to this HotAccountSlot.
+    // Balances count those through the slot, so the tail sums skip them.
+    @Column(updatable = false)
+    private Integer slot;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum Direction {
+        DEBIT,
+        CREDIT
+    }
+}
@@ -0,0 +1,48 @@
+package com.banking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totals exchanged with one counterparty account in a month, kept next to
+ * {@link MonthlyInsight} so the top counterparties of a month are an index
+ * range read.
+ */
+@Entity
+@Table(name = "account_monthly_counterparties", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_monthly_counterparty", columnNames = { "account_id", "month_start",
+                "counterparty_account_number" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyCounterparty {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Column(name = "counterparty_account_number", nullable = false, length = 32)
+    private String counterpartyAccountNumber;
+
+    @Column(name = "counterparty_name")
+    private String counterpartyName;
+
+    // Money sent to and received from the counterparty
+    @Column(name = "total_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount = 0L;
+}
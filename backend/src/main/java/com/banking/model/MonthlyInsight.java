@@ -0,0 +1,47 @@
+package com.banking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Money in and out of an account for one calendar month, maintained
+ * incrementally by {@link com.banking.service.InsightsService} from new
+ * {@link Transaction} rows.
+ */
+@Entity
+@Table(name = "account_monthly_insights", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_monthly_insight_account_month", columnNames = { "account_id", "month_start" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyInsight {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    // First day of the month
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Column(name = "total_in", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalIn = BigDecimal.ZERO;
+
+    @Column(name = "total_out", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalOut = BigDecimal.ZERO;
+
+    @Column(name = "count_in", nullable = false)
+    private Long countIn = 0L;
+
+    @Column(name = "count_out", nullable = false)
+    private Long countOut = 0L;
+}
@@ -0,0 +1,26 @@
+package com.banking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * High-water mark for a range of numbers handed out in blocks. Each node
+ * reserves a block by advancing {@code nextValue} under a row lock and then
+ * allocates from it in memory.
+ */
+@Entity
+@Table(name = "number_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NumberSequence {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private Long nextValue;
+}
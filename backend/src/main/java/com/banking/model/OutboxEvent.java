@@ -0,0 +1,69 @@
+package com.banking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Side effect recorded in the same transaction as the change that caused it
+ * and dispatched afterwards by {@link com.banking.service.OutboxRelay}.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_status", columnList = "status, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EventType type;
+
+    // WebSocket destination or email recipient, for troubleshooting
+    private String destination;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EventStatus status = EventStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    private String lastError;
+
+    // Claimed by a relay until then; after a failure, the earliest time of the next attempt
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime processedAt;
+
+    public enum EventType {
+        WEBSOCKET,
+        DEBIT_EMAIL,
+        CREDIT_EMAIL,
+        AUDIT
+    }
+
+    public enum EventStatus {
+        PENDING,
+        DONE,
+        FAILED
+    }
+}
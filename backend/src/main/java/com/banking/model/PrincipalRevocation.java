@@ -0,0 +1,33 @@
+package com.banking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Marks the claims of a user's access tokens stamped with an earlier id as
+ * stale, after a change to anything the token carries (email, name, roles,
+ * flags) or to the password. Every instance polls these rows.
+ */
+@Entity
+@Table(name = "principal_revocations", indexes = {
+        @Index(name = "idx_principal_revocations_at", columnList = "revoked_at"),
+        @Index(name = "idx_principal_revocations_user", columnList = "user_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrincipalRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Epoch millis, only used to expire rows
+    @Column(name = "revoked_at", nullable = false)
+    private Long revokedAt;
+}
@@ -0,0 +1,52 @@
+package com.banking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Short-lived transaction-signing session opened by one TPIN verification.
+ * Transfers presenting its token draw down {@code amountCap} instead of
+ * re-checking the TPIN.
+ */
+@Entity
+@Table(name = "signing_sessions", indexes = {
+        @Index(name = "idx_signing_user", columnList = "userId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SigningSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    // SHA-256 of the token handed to the client; the token itself is never stored
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false, length = 64)
+    private String deviceHash;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amountCap;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amountUsed = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,99 @@
+package com.banking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Recurring transfer executed by {@link com.banking.service.StandingInstructionScheduler}.
+ * Occurrence {@code n} is due at {@code startAt} plus {@code n} periods, so a
+ * monthly instruction started on the 31st runs on the last day of shorter
+ * months and returns to the 31st afterwards.
+ */
+@Entity
+@Table(name = "standing_instructions", indexes = {
+        @Index(name = "idx_standing_due", columnList = "status, nextRunAt"),
+        @Index(name = "idx_standing_user", columnList = "userId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StandingInstruction {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String fromAccountNumber;
+
+    @Column(nullable = false)
+    private String toAccountNumber;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Frequency frequency;
+
+    @Column(nullable = false)
+    private LocalDateTime startAt;
+
+    // Inclusive; null runs until cancelled
+    private LocalDate endDate;
+
+    // Index of the occurrence due at nextRunAt
+    @Column(nullable = false)
+    private Integer occurrence = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime nextRunAt;
+
+    // Set when claimed or after a failed attempt; the row is not picked up again before this
+    private LocalDateTime notBefore;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.ACTIVE;
+
+    private String lastTransactionId;
+
+    private LocalDateTime lastRunAt;
+
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY
+    }
+
+    public enum Status {
+        ACTIVE, COMPLETED, CANCELLED
+    }
+
+    public LocalDateTime occurrenceAt(int n) {
+        return switch (frequency) {
+            case DAILY -> startAt.plusDays(n);
+            case WEEKLY -> startAt.plusWeeks(n);
+            case MONTHLY -> startAt.plusMonths(n);
+        };
+    }
+}
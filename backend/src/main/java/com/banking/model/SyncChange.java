@@ -0,0 +1,50 @@
+package com.banking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One upsert or deletion of an account, card or device, appended in the
+ * same transaction as the write so delta sync can replay a user's changes in
+ * id order. Transactions are not logged here; sync reads them directly by id.
+ */
+@Entity
+@Table(name = "sync_changes", indexes = {
+        @Index(name = "idx_sync_changes_user", columnList = "user_id, id"),
+        @Index(name = "idx_sync_changes_created", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncChange {
+
+    public enum EntityType {
+        ACCOUNT, CARD, DEVICE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -12,7 +12,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_account_id", columnList = "account_id, id"),
+        @Index(name = "idx_transactions_account_created", columnList = "account_id, createdAt"),
+        // Month range scans and deletes of the archival job
+        @Index(name = "idx_transactions_created", columnList = "createdAt")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
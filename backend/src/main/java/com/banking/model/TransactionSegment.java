@@ -0,0 +1,57 @@
+package com.banking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One closed month of {@link Transaction} rows moved out of the hot table
+ * into an immutable, compressed segment file. The unique month doubles as the
+ * claim that keeps two instances from archiving the same month.
+ */
+@Entity
+@Table(name = "transaction_segments", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_transaction_segment_month", columnNames = { "month_start" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // First day of the archived month
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.WRITING;
+
+    @Column(name = "row_count")
+    private Long rowCount;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(name = "claimed_at", nullable = false)
+    private LocalDateTime claimedAt;
+
+    public enum Status {
+        // File being written; the month is still read from the hot table
+        WRITING,
+        // File complete and indexed; readers use it, hot rows are being deleted
+        READY,
+        // Hot rows deleted
+        PURGED
+    }
+}
@@ -0,0 +1,41 @@
+package com.banking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Index entry for one independently compressed run of a single account's
+ * rows inside a {@link TransactionSegment} file, so a reader decompresses
+ * only the blocks of the account it needs.
+ */
+@Entity
+@Table(name = "transaction_segment_blocks", indexes = {
+        @Index(name = "idx_segment_block_account", columnList = "account_id, segment_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionSegmentBlock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "segment_id", nullable = false)
+    private Long segmentId;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    // Byte range of the gzip member in the segment file
+    @Column(name = "file_offset", nullable = false)
+    private Long fileOffset;
+
+    @Column(name = "length_bytes", nullable = false)
+    private Integer lengthBytes;
+
+    @Column(name = "row_count", nullable = false)
+    private Integer rowCount;
+}
@@ -0,0 +1,26 @@
+package com.banking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counter bumped whenever anything shown by a user's account, transaction or
+ * card reads changes; it is the basis of their ETags. The row with user id 0
+ * is shared by every user.
+ */
+@Entity
+@Table(name = "user_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserVersion {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long version;
+}
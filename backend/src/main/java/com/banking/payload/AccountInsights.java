@@ -0,0 +1,16 @@
+package com.banking.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class AccountInsights {
+    private Long accountId;
+    // Newest month first; months without transactions are omitted
+    private List<MonthlyInsights> months;
+    // False while the aggregates are still catching up with this account's history
+    private boolean upToDate;
+}
@@ -0,0 +1,14 @@
+package com.banking.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class BalancePoint {
+    private LocalDate date;
+    private BigDecimal balance;
+}
@@ -0,0 +1,48 @@
+package com.banking.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class BulkTransferStatus {
+    private String jobId;
+    private String fromAccountNumber;
+    private Status status = Status.QUEUED;
+    private int processed;
+    private int succeeded;
+    private int failed;
+    private BigDecimal totalDebited = BigDecimal.ZERO;
+    private String message;
+    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime completedAt;
+
+    // One page of results by line number; pass nextResultsAfterLine back as afterLine for the next
+    private List<LegResult> results = new ArrayList<>();
+    private Integer nextResultsAfterLine;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LegResult {
+        private int line;
+        private String toAccountNumber;
+        private BigDecimal amount;
+        private boolean success;
+        private String transactionId;
+        private String message;
+    }
+}
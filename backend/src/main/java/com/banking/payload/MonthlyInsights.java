@@ -0,0 +1,29 @@
+package com.banking.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class MonthlyInsights {
+    // yyyy-MM
+    private String month;
+    private BigDecimal totalIn;
+    private BigDecimal totalOut;
+    private long countIn;
+    private long countOut;
+    private List<CounterpartyTotal> topCounterparties;
+
+    @Data
+    @AllArgsConstructor
+    public static class CounterpartyTotal {
+        private String accountNumber;
+        private String name;
+        // Sent to plus received from this counterparty
+        private BigDecimal totalAmount;
+        private long transactionCount;
+    }
+}
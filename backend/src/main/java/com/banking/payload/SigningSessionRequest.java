@@ -0,0 +1,11 @@
+package com.banking.payload;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class SigningSessionRequest {
+    private String tpin;
+    private BigDecimal amountCap;
+}
@@ -0,0 +1,15 @@
+package com.banking.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class SigningSessionResponse {
+    private String signingToken;
+    private BigDecimal amountCap;
+    private LocalDateTime expiresAt;
+}
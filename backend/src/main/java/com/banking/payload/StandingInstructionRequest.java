@@ -0,0 +1,19 @@
+package com.banking.payload;
+
+import com.banking.model.StandingInstruction;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class StandingInstructionRequest {
+    private String fromAccountNumber;
+    private String toAccountNumber;
+    private BigDecimal amount;
+    private String description;
+    private StandingInstruction.Frequency frequency;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String tpin;
+}
@@ -0,0 +1,37 @@
+package com.banking.payload;
+
+import com.banking.model.Account;
+import com.banking.model.Card;
+import com.banking.model.Transaction;
+import com.banking.model.UserDevice;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponse {
+    // True when this is a full snapshot and the client should replace its local copy
+    private boolean reset;
+    private List<Account> accounts;
+    private List<Transaction> transactions;
+    private List<Card> cards;
+    private List<UserDevice> devices;
+    // Removing an account also removes its cards and transactions on the client
+    private List<Tombstone> deleted;
+    // Pass back as ?cursor= on the next sync
+    private String nextCursor;
+    // More changes are waiting; sync again right away
+    private boolean hasMore;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Tombstone {
+        private String type;
+        private Long id;
+    }
+}
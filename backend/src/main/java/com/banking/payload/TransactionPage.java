@@ -0,0 +1,16 @@
+package com.banking.payload;
+
+import com.banking.model.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class TransactionPage {
+    private List<Transaction> items;
+    // Pass back as ?cursor= to get the next (older) page; null on the last page
+    private String nextCursor;
+    private boolean hasMore;
+}
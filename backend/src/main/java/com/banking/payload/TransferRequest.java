@@ -1,5 +1,6 @@
 package com.banking.payload;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -11,4 +12,9 @@ public class TransferRequest {
     private BigDecimal amount;
     private String description;
     private String tpin;
+    private String signingToken;
+
+    // Filled from the X-Device-Id header, never from the body
+    @JsonIgnore
+    private String deviceId;
 }
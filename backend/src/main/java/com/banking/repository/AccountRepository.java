@@ -12,6 +12,31 @@ import java.util.Optional;
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByAccountNumber(String accountNumber);
 
+    // SELECT ... FOR UPDATE. MySQL ignores positive lock timeouts in the query itself
+    // and falls back to innodb_lock_wait_timeout, so keep that low on the datasource.
+    @org.springframework.data.jpa.repository.Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @org.springframework.data.jpa.repository.QueryHints(@jakarta.persistence.QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @org.springframework.data.jpa.repository.Query("SELECT a FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<Account> findByAccountNumberForUpdate(
+            @org.springframework.data.repository.query.Param("accountNumber") String accountNumber);
+
+    @org.springframework.data.jpa.repository.Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @org.springframework.data.jpa.repository.Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdForUpdate(@org.springframework.data.repository.query.Param("id") Long id);
+
+    @org.springframework.data.jpa.repository.Query("SELECT a FROM Account a JOIN FETCH a.user WHERE a.accountNumber IN :accountNumbers")
+    List<Account> findWithUserByAccountNumberIn(
+            @org.springframework.data.repository.query.Param("accountNumbers") java.util.Collection<String> accountNumbers);
+
+    // Range scan on the unique index; used once per reserved block to skip numbers already issued
+    @org.springframework.data.jpa.repository.Query("SELECT a.accountNumber FROM Account a WHERE a.accountNumber BETWEEN :low AND :high")
+    List<String> findAccountNumbersBetween(@org.springframework.data.repository.query.Param("low") String low,
+            @org.springframework.data.repository.query.Param("high") String high);
+
+    @org.springframework.data.jpa.repository.Query("SELECT a.id FROM Account a WHERE a.id > :afterId ORDER BY a.id")
+    List<Long> findIdsAfter(@org.springframework.data.repository.query.Param("afterId") Long afterId,
+            org.springframework.data.domain.Pageable pageable);
+
     List<Account> findByUser(User user);
 
     List<Account> findByUserId(Long userId);
@@ -20,6 +45,11 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 
     Boolean existsByPhoneNumber(String phoneNumber);
 
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query("UPDATE Account a SET a.balance = :balance WHERE a.id = :id")
+    void updateBalance(@org.springframework.data.repository.query.Param("id") Long id,
+            @org.springframework.data.repository.query.Param("balance") java.math.BigDecimal balance);
+
     @org.springframework.data.jpa.repository.Modifying
     @org.springframework.transaction.annotation.Transactional
     @org.springframework.data.jpa.repository.Query("DELETE FROM Account a WHERE a.user.id = :userId")
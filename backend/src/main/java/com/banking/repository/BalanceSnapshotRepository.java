@@ -0,0 +1,20 @@
+package com.banking.repository;
+
+import com.banking.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+    Optional<BalanceSnapshot> findTopByAccountIdOrderByIdDesc(Long accountId);
+
+    @org.springframework.data.jpa.repository.Query("SELECT COALESCE(MAX(s.lastEntryId), 0) FROM BalanceSnapshot s")
+    Long findHighestFoldedEntryId();
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("DELETE FROM BalanceSnapshot s WHERE s.account.id = :accountId")
+    void deleteByAccountId(@org.springframework.data.repository.query.Param("accountId") Long accountId);
+}
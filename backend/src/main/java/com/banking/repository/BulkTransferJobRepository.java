@@ -0,0 +1,31 @@
+package com.banking.repository;
+
+import com.banking.model.BulkTransferJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface BulkTransferJobRepository extends JpaRepository<BulkTransferJob, String> {
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("UPDATE BulkTransferJob j SET j.heartbeatAt = :now "
+            + "WHERE j.owner = :owner AND j.completedAt IS NULL")
+    int heartbeat(@org.springframework.data.repository.query.Param("owner") String owner,
+            @org.springframework.data.repository.query.Param("now") LocalDateTime now);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("UPDATE BulkTransferJob j SET j.status = com.banking.model.BulkTransferJob$Status.FAILED, "
+            + "j.message = :message, j.completedAt = :now WHERE j.completedAt IS NULL AND j.heartbeatAt < :before")
+    int failAbandoned(@org.springframework.data.repository.query.Param("before") LocalDateTime before,
+            @org.springframework.data.repository.query.Param("message") String message,
+            @org.springframework.data.repository.query.Param("now") LocalDateTime now);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("DELETE FROM BulkTransferJob j WHERE j.completedAt < :before")
+    int deleteCompletedBefore(@org.springframework.data.repository.query.Param("before") LocalDateTime before);
+}
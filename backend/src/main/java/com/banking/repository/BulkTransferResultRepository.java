@@ -0,0 +1,22 @@
+package com.banking.repository;
+
+import com.banking.model.BulkTransferResult;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BulkTransferResultRepository extends JpaRepository<BulkTransferResult, Long> {
+
+    List<BulkTransferResult> findByJobIdAndLineNumberGreaterThanOrderByLineNumber(String jobId, int afterLine,
+            Pageable pageable);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("DELETE FROM BulkTransferResult r WHERE r.jobId IN "
+            + "(SELECT j.id FROM BulkTransferJob j WHERE j.completedAt < :before)")
+    int deleteForJobsCompletedBefore(@org.springframework.data.repository.query.Param("before") LocalDateTime before);
+}
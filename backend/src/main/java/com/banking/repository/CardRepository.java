@@ -4,12 +4,16 @@ import com.banking.model.Card;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CardRepository extends JpaRepository<Card, Long> {
     Optional<Card> findByAccountId(Long accountId);
 
+    List<Card> findByAccountIdIn(Collection<Long> accountIds);
+
     Optional<Card> findByCardNumber(String cardNumber);
 
     @org.springframework.data.jpa.repository.Modifying
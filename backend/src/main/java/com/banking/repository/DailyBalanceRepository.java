@@ -0,0 +1,36 @@
+package com.banking.repository;
+
+import com.banking.model.DailyBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyBalanceRepository extends JpaRepository<DailyBalance, Long> {
+
+    Optional<DailyBalance> findTopByAccountIdAndBalanceDateLessThanEqualOrderByBalanceDateDesc(Long accountId,
+            LocalDate date);
+
+    List<DailyBalance> findByAccountIdAndBalanceDateBetweenOrderByBalanceDate(Long accountId, LocalDate from,
+            LocalDate to);
+
+    // Latest row strictly before the date for each account; served by the (account_id, balance_date) unique index
+    @org.springframework.data.jpa.repository.Query("SELECT d FROM DailyBalance d WHERE d.accountId IN :accountIds AND d.balanceDate = "
+            + "(SELECT MAX(p.balanceDate) FROM DailyBalance p WHERE p.accountId = d.accountId AND p.balanceDate < :date)")
+    List<DailyBalance> findLatestBefore(@org.springframework.data.repository.query.Param("accountIds") Collection<Long> accountIds,
+            @org.springframework.data.repository.query.Param("date") LocalDate date);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query("DELETE FROM DailyBalance d WHERE d.balanceDate = :date AND d.accountId IN :accountIds")
+    int deleteForDate(@org.springframework.data.repository.query.Param("date") LocalDate date,
+            @org.springframework.data.repository.query.Param("accountIds") Collection<Long> accountIds);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("DELETE FROM DailyBalance d WHERE d.accountId = :accountId")
+    void deleteByAccountId(@org.springframework.data.repository.query.Param("accountId") Long accountId);
+}
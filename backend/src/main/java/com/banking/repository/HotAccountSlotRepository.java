@@ -0,0 +1,36 @@
+package com.banking.repository;
+
+import com.banking.model.HotAccountSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface HotAccountSlotRepository extends JpaRepository<HotAccountSlot, Long> {
+
+    // Returns 0 if the account is not (or no longer) in hot-account mode
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query("UPDATE HotAccountSlot h SET h.amount = h.amount + :amount WHERE h.accountId = :accountId AND h.slot = :slot")
+    int credit(@org.springframework.data.repository.query.Param("accountId") Long accountId,
+            @org.springframework.data.repository.query.Param("slot") Integer slot,
+            @org.springframework.data.repository.query.Param("amount") BigDecimal amount);
+
+    @org.springframework.data.jpa.repository.Query("SELECT COALESCE(SUM(h.amount), 0) FROM HotAccountSlot h WHERE h.accountId = :accountId")
+    BigDecimal sumByAccountId(@org.springframework.data.repository.query.Param("accountId") Long accountId);
+
+    @org.springframework.data.jpa.repository.Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @org.springframework.data.jpa.repository.Query("SELECT h FROM HotAccountSlot h WHERE h.accountId = :accountId ORDER BY h.slot")
+    List<HotAccountSlot> findByAccountIdForUpdate(@org.springframework.data.repository.query.Param("accountId") Long accountId);
+
+    List<HotAccountSlot> findByAccountId(Long accountId);
+
+    @org.springframework.data.jpa.repository.Query("SELECT DISTINCT h.accountId FROM HotAccountSlot h")
+    List<Long> findHotAccountIds();
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("DELETE FROM HotAccountSlot h WHERE h.accountId = :accountId")
+    void deleteByAccountId(@org.springframework.data.repository.query.Param("accountId") Long accountId);
+}
@@ -0,0 +1,50 @@
+package com.banking.repository;
+
+import com.banking.model.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+    List<LedgerEntry> findByJournalId(String journalId);
+
+    @org.springframework.data.jpa.repository.Query("SELECT COALESCE(SUM(CASE WHEN e.direction = com.banking.model.LedgerEntry$Direction.CREDIT THEN e.amount ELSE -e.amount END), 0) "
+            + "FROM LedgerEntry e WHERE e.account.id = :accountId AND e.id > :afterId AND e.id <= :upToId AND e.slot IS NULL")
+    BigDecimal sumBetween(@org.springframework.data.repository.query.Param("accountId") Long accountId,
+            @org.springframework.data.repository.query.Param("afterId") Long afterId,
+            @org.springframework.data.repository.query.Param("upToId") Long upToId);
+
+    @org.springframework.data.jpa.repository.Query("SELECT COALESCE(MAX(e.id), 0) FROM LedgerEntry e WHERE e.createdAt <= :before")
+    Long findMaxIdCreatedBefore(@org.springframework.data.repository.query.Param("before") java.time.LocalDateTime before);
+
+    @org.springframework.data.jpa.repository.Query("SELECT DISTINCT e.account.id FROM LedgerEntry e WHERE e.id > :afterId AND e.id <= :upToId")
+    List<Long> findAccountIdsWithEntriesBetween(@org.springframework.data.repository.query.Param("afterId") Long afterId,
+            @org.springframework.data.repository.query.Param("upToId") Long upToId);
+
+    // The createdAt sums below count every entry, including hot-account slot credits
+    @org.springframework.data.jpa.repository.Query("SELECT DISTINCT e.account.id FROM LedgerEntry e WHERE e.createdAt >= :start AND e.createdAt < :end")
+    List<Long> findAccountIdsWithEntriesCreatedBetween(
+            @org.springframework.data.repository.query.Param("start") java.time.LocalDateTime start,
+            @org.springframework.data.repository.query.Param("end") java.time.LocalDateTime end);
+
+    @org.springframework.data.jpa.repository.Query("SELECT e.account.id, COALESCE(SUM(CASE WHEN e.direction = com.banking.model.LedgerEntry$Direction.CREDIT THEN e.amount ELSE -e.amount END), 0) "
+            + "FROM LedgerEntry e WHERE e.account.id IN :accountIds AND e.createdAt >= :start AND e.createdAt < :end GROUP BY e.account.id")
+    List<Object[]> sumByAccountCreatedBetween(
+            @org.springframework.data.repository.query.Param("accountIds") java.util.Collection<Long> accountIds,
+            @org.springframework.data.repository.query.Param("start") java.time.LocalDateTime start,
+            @org.springframework.data.repository.query.Param("end") java.time.LocalDateTime end);
+
+    @org.springframework.data.jpa.repository.Query("SELECT COALESCE(SUM(CASE WHEN e.direction = com.banking.model.LedgerEntry$Direction.CREDIT THEN e.amount ELSE -e.amount END), 0) "
+            + "FROM LedgerEntry e WHERE e.account.id = :accountId AND e.createdAt >= :start AND e.createdAt < :end")
+    BigDecimal sumCreatedBetween(@org.springframework.data.repository.query.Param("accountId") Long accountId,
+            @org.springframework.data.repository.query.Param("start") java.time.LocalDateTime start,
+            @org.springframework.data.repository.query.Param("end") java.time.LocalDateTime end);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("DELETE FROM LedgerEntry e WHERE e.account.id = :accountId")
+    void deleteByAccountId(@org.springframework.data.repository.query.Param("accountId") Long accountId);
+}
@@ -0,0 +1,20 @@
+package com.banking.repository;
+
+import com.banking.model.MonthlyInsight;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MonthlyInsightRepository extends JpaRepository<MonthlyInsight, Long> {
+
+    List<MonthlyInsight> findByAccountIdAndMonthStartGreaterThanEqualOrderByMonthStartDesc(Long accountId,
+            LocalDate from);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("DELETE FROM MonthlyInsight m WHERE m.accountId = :accountId")
+    void deleteByAccountId(@org.springframework.data.repository.query.Param("accountId") Long accountId);
+}
@@ -0,0 +1,15 @@
+package com.banking.repository;
+
+import com.banking.model.NumberSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface NumberSequenceRepository extends JpaRepository<NumberSequence, String> {
+
+    @org.springframework.data.jpa.repository.Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @org.springframework.data.jpa.repository.Query("SELECT s FROM NumberSequence s WHERE s.name = :name")
+    Optional<NumberSequence> findByNameForUpdate(@org.springframework.data.repository.query.Param("name") String name);
+}
@@ -0,0 +1,26 @@
+package com.banking.repository;
+
+import com.banking.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // FOR UPDATE SKIP LOCKED: several instances can claim leases without picking the same rows
+    @org.springframework.data.jpa.repository.Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @org.springframework.data.jpa.repository.QueryHints(@jakarta.persistence.QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @org.springframework.data.jpa.repository.Query("SELECT e FROM OutboxEvent e WHERE e.status = com.banking.model.OutboxEvent$EventStatus.PENDING AND e.type IN :types "
+            + "AND (e.lockedUntil IS NULL OR e.lockedUntil < :now) ORDER BY e.id")
+    List<OutboxEvent> claimPending(@org.springframework.data.repository.query.Param("types") List<OutboxEvent.EventType> types,
+            @org.springframework.data.repository.query.Param("now") LocalDateTime now, Pageable pageable);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("DELETE FROM OutboxEvent e WHERE e.status = com.banking.model.OutboxEvent$EventStatus.DONE AND e.processedAt < :before")
+    int deleteProcessedBefore(@org.springframework.data.repository.query.Param("before") LocalDateTime before);
+}
@@ -0,0 +1,21 @@
+package com.banking.repository;
+
+import com.banking.model.PrincipalRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PrincipalRevocationRepository extends JpaRepository<PrincipalRevocation, Long> {
+
+    List<PrincipalRevocation> findByRevokedAtGreaterThanEqual(Long since);
+
+    @org.springframework.data.jpa.repository.Query("SELECT COALESCE(MAX(r.id), 0) FROM PrincipalRevocation r WHERE r.userId = :userId")
+    long findLatestIdByUserId(@org.springframework.data.repository.query.Param("userId") Long userId);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("DELETE FROM PrincipalRevocation r WHERE r.revokedAt < :before")
+    int deleteRevokedBefore(@org.springframework.data.repository.query.Param("before") Long before);
+}
@@ -0,0 +1,33 @@
+package com.banking.repository;
+
+import com.banking.model.SigningSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Repository
+public interface SigningSessionRepository extends JpaRepository<SigningSession, Long> {
+
+    // Single conditional UPDATE so concurrent transfers cannot overdraw the cap
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query("UPDATE SigningSession s SET s.amountUsed = s.amountUsed + :amount "
+            + "WHERE s.tokenHash = :tokenHash AND s.userId = :userId AND s.deviceHash = :deviceHash "
+            + "AND s.expiresAt > :now AND s.amountUsed + :amount <= s.amountCap")
+    int consume(@org.springframework.data.repository.query.Param("tokenHash") String tokenHash,
+            @org.springframework.data.repository.query.Param("userId") Long userId,
+            @org.springframework.data.repository.query.Param("deviceHash") String deviceHash,
+            @org.springframework.data.repository.query.Param("amount") BigDecimal amount,
+            @org.springframework.data.repository.query.Param("now") LocalDateTime now);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("DELETE FROM SigningSession s WHERE s.userId = :userId")
+    void deleteByUserId(@org.springframework.data.repository.query.Param("userId") Long userId);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("DELETE FROM SigningSession s WHERE s.expiresAt < :now")
+    int deleteExpired(@org.springframework.data.repository.query.Param("now") LocalDateTime now);
+}
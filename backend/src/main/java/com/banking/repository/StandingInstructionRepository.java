@@ -0,0 +1,35 @@
+package com.banking.repository;
+
+import com.banking.model.StandingInstruction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StandingInstructionRepository extends JpaRepository<StandingInstruction, Long> {
+
+    // FOR UPDATE SKIP LOCKED: instances claiming at the same time get disjoint batches
+    @org.springframework.data.jpa.repository.Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @org.springframework.data.jpa.repository.QueryHints(@jakarta.persistence.QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @org.springframework.data.jpa.repository.Query("SELECT s FROM StandingInstruction s WHERE s.status = com.banking.model.StandingInstruction$Status.ACTIVE "
+            + "AND s.nextRunAt <= :now AND (s.notBefore IS NULL OR s.notBefore <= :now) ORDER BY s.nextRunAt")
+    List<StandingInstruction> claimDue(@org.springframework.data.repository.query.Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    List<StandingInstruction> findByUserIdOrderByIdDesc(Long userId);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("UPDATE StandingInstruction s SET s.status = com.banking.model.StandingInstruction$Status.CANCELLED "
+            + "WHERE s.status = com.banking.model.StandingInstruction$Status.ACTIVE "
+            + "AND (s.fromAccountNumber = :accountNumber OR s.toAccountNumber = :accountNumber)")
+    int cancelByAccountNumber(@org.springframework.data.repository.query.Param("accountNumber") String accountNumber);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("DELETE FROM StandingInstruction s WHERE s.userId = :userId")
+    void deleteByUserId(@org.springframework.data.repository.query.Param("userId") Long userId);
+}
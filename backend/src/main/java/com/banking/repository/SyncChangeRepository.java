@@ -0,0 +1,31 @@
+package com.banking.repository;
+
+import com.banking.model.SyncChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SyncChangeRepository extends JpaRepository<SyncChange, Long> {
+
+    @org.springframework.data.jpa.repository.Query("SELECT c FROM SyncChange c WHERE c.userId = :userId AND c.id > :afterId ORDER BY c.id")
+    List<SyncChange> findByUserIdAfter(@org.springframework.data.repository.query.Param("userId") Long userId,
+            @org.springframework.data.repository.query.Param("afterId") Long afterId, Pageable pageable);
+
+    @org.springframework.data.jpa.repository.Query("SELECT COALESCE(MAX(c.id), 0) FROM SyncChange c WHERE c.userId = :userId AND c.createdAt < :before")
+    Long findMaxIdCreatedBefore(@org.springframework.data.repository.query.Param("userId") Long userId,
+            @org.springframework.data.repository.query.Param("before") LocalDateTime before);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("DELETE FROM SyncChange c WHERE c.createdAt < :before")
+    int deleteCreatedBefore(@org.springframework.data.repository.query.Param("before") LocalDateTime before);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("DELETE FROM SyncChange c WHERE c.userId = :userId")
+    void deleteByUserId(@org.springframework.data.repository.query.Param("userId") Long userId);
+}
@@ -8,17 +8,58 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionStreamRepository {
+    Optional<Transaction> findByTransactionId(String transactionId);
+
+    List<Transaction> findByTransactionIdIn(java.util.Collection<String> transactionIds);
+
     Page<Transaction> findByAccountId(Long accountId, Pageable pageable);
 
     List<Transaction> findByAccountIdOrderByIdDesc(Long accountId);
 
+    // Keyset pages, newest first: walks idx_transactions_account_id from the cursor and stops after the limit
+    @org.springframework.data.jpa.repository.Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId AND t.id < :beforeId ORDER BY t.id DESC")
+    List<Transaction> findPageByAccountId(@org.springframework.data.repository.query.Param("accountId") Long accountId,
+            @org.springframework.data.repository.query.Param("beforeId") Long beforeId, Pageable pageable);
+
+    // Change feed for derived read models: rows after a watermark id, oldest first, via the primary key
+    @org.springframework.data.jpa.repository.Query("SELECT t FROM Transaction t WHERE t.id > :afterId AND t.id <= :upToId ORDER BY t.id")
+    List<Transaction> findFeedBetween(@org.springframework.data.repository.query.Param("afterId") Long afterId,
+            @org.springframework.data.repository.query.Param("upToId") Long upToId, Pageable pageable);
+
+    @org.springframework.data.jpa.repository.Query("SELECT COALESCE(MAX(t.id), :afterId) FROM Transaction t WHERE t.id > :afterId AND t.createdAt < :before")
+    Long findMaxIdCreatedBefore(@org.springframework.data.repository.query.Param("afterId") Long afterId,
+            @org.springframework.data.repository.query.Param("before") LocalDateTime before);
+
+    @org.springframework.data.jpa.repository.Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId AND t.id > :afterId ORDER BY t.id")
+    List<Transaction> findByAccountIdAfter(@org.springframework.data.repository.query.Param("accountId") Long accountId,
+            @org.springframework.data.repository.query.Param("afterId") Long afterId, Pageable pageable);
+
+    @org.springframework.data.jpa.repository.Query("SELECT COALESCE(MAX(t.id), 0) FROM Transaction t WHERE t.account.id IN :accountIds AND t.createdAt < :before")
+    Long findMaxIdByAccountIdInCreatedBefore(
+            @org.springframework.data.repository.query.Param("accountIds") java.util.Collection<Long> accountIds,
+            @org.springframework.data.repository.query.Param("before") LocalDateTime before);
+
+    @org.springframework.data.jpa.repository.Query("SELECT t FROM Transaction t WHERE t.account.id IN :accountIds AND t.id > :afterId ORDER BY t.id")
+    List<Transaction> findByAccountIdInAfter(
+            @org.springframework.data.repository.query.Param("accountIds") java.util.Collection<Long> accountIds,
+            @org.springframework.data.repository.query.Param("afterId") Long afterId, Pageable pageable);
+
     List<Transaction> findByAccountIdAndCreatedAtBetween(Long accountId, LocalDateTime start, LocalDateTime end);
 
-    @org.springframework.data.jpa.repository.Query("SELECT t FROM Transaction t WHERE t.account.user.id = :userId ORDER BY t.id DESC")
-    List<Transaction> findAllByUserId(@org.springframework.data.repository.query.Param("userId") Long userId);
+    @org.springframework.data.jpa.repository.Query("SELECT MIN(t.createdAt) FROM Transaction t")
+    LocalDateTime findOldestCreatedAt();
+
+    @org.springframework.data.jpa.repository.Query("SELECT COALESCE(MAX(t.id), 0) FROM Transaction t WHERE t.createdAt >= :start AND t.createdAt < :end")
+    Long findMaxIdCreatedBetween(@org.springframework.data.repository.query.Param("start") LocalDateTime start,
+            @org.springframework.data.repository.query.Param("end") LocalDateTime end);
+
+    @org.springframework.data.jpa.repository.Query("SELECT COUNT(t) FROM Transaction t WHERE t.createdAt >= :start AND t.createdAt < :end")
+    long countCreatedBetween(@org.springframework.data.repository.query.Param("start") LocalDateTime start,
+            @org.springframework.data.repository.query.Param("end") LocalDateTime end);
 
     @org.springframework.data.jpa.repository.Modifying
     @org.springframework.transaction.annotation.Transactional
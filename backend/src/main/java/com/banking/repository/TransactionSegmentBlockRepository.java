@@ -0,0 +1,31 @@
+package com.banking.repository;
+
+import com.banking.model.TransactionSegmentBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TransactionSegmentBlockRepository extends JpaRepository<TransactionSegmentBlock, Long> {
+
+    List<TransactionSegmentBlock> findByAccountIdAndSegmentIdOrderById(Long accountId, Long segmentId);
+
+    // Only blocks of segments readers may use
+    @org.springframework.data.jpa.repository.Query("SELECT b FROM TransactionSegmentBlock b WHERE b.accountId IN :accountIds AND b.segmentId IN "
+            + "(SELECT s.id FROM TransactionSegment s WHERE s.status <> com.banking.model.TransactionSegment$Status.WRITING) ORDER BY b.id")
+    List<TransactionSegmentBlock> findReadableByAccountIdIn(
+            @org.springframework.data.repository.query.Param("accountIds") Collection<Long> accountIds);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("DELETE FROM TransactionSegmentBlock b WHERE b.segmentId = :segmentId")
+    void deleteBySegmentId(@org.springframework.data.repository.query.Param("segmentId") Long segmentId);
+
+    // Archived rows of a deleted account become unreachable; segment files are never rewritten
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("DELETE FROM TransactionSegmentBlock b WHERE b.accountId = :accountId")
+    void deleteByAccountId(@org.springframework.data.repository.query.Param("accountId") Long accountId);
+}
@@ -0,0 +1,23 @@
+package com.banking.repository;
+
+import com.banking.model.TransactionSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TransactionSegmentRepository extends JpaRepository<TransactionSegment, Long> {
+
+    List<TransactionSegment> findByStatus(TransactionSegment.Status status);
+
+    List<TransactionSegment> findByStatusAndClaimedAtBefore(TransactionSegment.Status status, LocalDateTime before);
+
+    List<TransactionSegment> findByMonthStartBetweenAndStatusIn(LocalDate from, LocalDate to,
+            Collection<TransactionSegment.Status> statuses);
+
+    long countByStatusIn(Collection<TransactionSegment.Status> statuses);
+}
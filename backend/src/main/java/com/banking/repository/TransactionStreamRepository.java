@@ -0,0 +1,20 @@
+package com.banking.repository;
+
+import com.banking.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Forward-only cursors over {@code transactions}. The caller must consume a
+ * stream inside a transaction and close it.
+ */
+public interface TransactionStreamRepository {
+
+    // Statement exports: one account's rows in the period, oldest first
+    Stream<Transaction> streamByAccountIdAndCreatedAtBetween(Long accountId, LocalDateTime start,
+            LocalDateTime end);
+
+    // Archival: one month in account, id order
+    Stream<Transaction> streamCreatedBetween(LocalDateTime start, LocalDateTime end);
+}
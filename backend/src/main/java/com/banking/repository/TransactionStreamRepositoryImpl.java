@@ -0,0 +1,48 @@
+package com.banking.repository;
+
+import com.banking.model.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * MySQL Connector/J only streams rows one at a time with fetch size
+ * Integer.MIN_VALUE, which other drivers such as H2 reject, so the fetch size
+ * is a property rather than a query hint annotation.
+ */
+public class TransactionStreamRepositoryImpl implements TransactionStreamRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${transactions.stream.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    @Override
+    public Stream<Transaction> streamByAccountIdAndCreatedAtBetween(Long accountId, LocalDateTime start,
+            LocalDateTime end) {
+        return stream(entityManager.createQuery("SELECT t FROM Transaction t WHERE t.account.id = :accountId "
+                + "AND t.createdAt BETWEEN :start AND :end ORDER BY t.createdAt, t.id", Transaction.class)
+                .setParameter("accountId", accountId)
+                .setParameter("start", start)
+                .setParameter("end", end));
+    }
+
+    @Override
+    public Stream<Transaction> streamCreatedBetween(LocalDateTime start, LocalDateTime end) {
+        return stream(entityManager.createQuery("SELECT t FROM Transaction t WHERE t.createdAt >= :start "
+                + "AND t.createdAt < :end ORDER BY t.account.id, t.id", Transaction.class)
+                .setParameter("start", start)
+                .setParameter("end", end));
+    }
+
+    private Stream<Transaction> stream(TypedQuery<Transaction> query) {
+        return query.setHint("org.hibernate.fetchSize", fetchSize)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream();
+    }
+}
@@ -12,6 +12,9 @@ public interface UserDeviceRepository extends JpaRepository<UserDevice, Long> {
     @org.springframework.data.jpa.repository.Query("SELECT d FROM UserDevice d WHERE d.user.id = :userId ORDER BY d.id DESC")
     List<UserDevice> findByUserIdCustom(@org.springframework.data.repository.query.Param("userId") Long userId);
 
+    @org.springframework.data.jpa.repository.Query("SELECT d.id FROM UserDevice d WHERE d.user.id = :userId")
+    List<Long> findIdsByUserId(@org.springframework.data.repository.query.Param("userId") Long userId);
+
     Optional<UserDevice> findByRefreshToken(String refreshToken);
 
     void deleteByRefreshToken(String refreshToken);
@@ -0,0 +1,20 @@
+package com.banking.repository;
+
+import com.banking.model.UserVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserVersionRepository extends JpaRepository<UserVersion, Long> {
+
+    // The user's own row and the shared row 0
+    @org.springframework.data.jpa.repository.Query("SELECT v FROM UserVersion v WHERE v.userId IN (0, :userId)")
+    List<UserVersion> findWithShared(@org.springframework.data.repository.query.Param("userId") Long userId);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query(value = "INSERT INTO user_versions (user_id, version) VALUES (:userId, 1) "
+            + "ON DUPLICATE KEY UPDATE version = version + 1", nativeQuery = true)
+    void bump(@org.springframework.data.repository.query.Param("userId") Long userId);
+}
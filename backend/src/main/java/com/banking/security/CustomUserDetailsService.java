@@ -2,33 +2,165 @@ package com.banking.security;
 
 import com.banking.model.User;
 import com.banking.repository.UserRepository;
+import com.banking.service.PrincipalRevocationService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Loads principals for logins and for the JWT filter through a bounded cache
+ * keyed by user id. An entry is dropped when {@link PrincipalRevocationService}
+ * reports a change to its user: at once for changes made on this instance and
+ * within one poll interval for changes made on another. The TTL bounds how long
+ * an entry can outlive a change that bypassed the revocation log.
+ */
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final PrincipalRevocationService principalRevocationService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${auth.principal-cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${auth.principal-cache.size:10000}")
+    private int cacheSize;
+
+    @Value("${auth.principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // Guarded by cache, like the email index below
+    private final Map<Long, CachedPrincipal> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CachedPrincipal> eldest) {
+            if (size() > cacheSize) {
+                evictions.incrementAndGet();
+                idsByEmail.remove(eldest.getValue().principal().getEmail());
+                return true;
+            }
+            return false;
+        }
+    };
+    private final Map<String, Long> idsByEmail = new HashMap<>();
+
+    @PostConstruct
+    void registerInvalidation() {
+        if (cacheEnabled) {
+            principalRevocationService.addListener(this::invalidate);
+        }
+    }
 
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
-
-        return UserPrincipal.create(user);
+        UserPrincipal cached = null;
+        if (cacheEnabled) {
+            synchronized (cache) {
+                Long id = idsByEmail.get(email);
+                cached = id != null ? cached(id) : null;
+            }
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        return load(() -> userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email)));
     }
 
-    @Transactional
     public UserDetails loadUserById(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
+        UserPrincipal cached = null;
+        if (cacheEnabled) {
+            synchronized (cache) {
+                cached = cached(id);
+            }
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        return load(() -> userRepository.findById(id)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id)));
+    }
+
+    public void invalidate(Long userId) {
+        synchronized (cache) {
+            invalidations.incrementAndGet();
+            CachedPrincipal removed = cache.remove(userId);
+            if (removed != null) {
+                idsByEmail.remove(removed.principal().getEmail());
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        return Map.of(
+                "enabled", cacheEnabled,
+                "hits", hitCount,
+                "misses", misses.get(),
+                "evictions", evictions.get(),
+                "invalidations", invalidations.get(),
+                "size", size,
+                "hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+    }
+
+    // Caller holds the cache lock
+    private UserPrincipal cached(Long id) {
+        CachedPrincipal entry = cache.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            cache.remove(id);
+            idsByEmail.remove(entry.principal().getEmail());
+            return null;
+        }
+        return entry.principal();
+    }
+
+    // Not read-only, so logins keep reading the primary when reads are routed to a replica
+    private UserPrincipal load(Supplier<User> finder) {
+        misses.incrementAndGet();
+        long seen = invalidations.get();
+        UserPrincipal principal = new TransactionTemplate(transactionManager)
+                .execute(status -> UserPrincipal.create(finder.get()));
+        if (cacheEnabled) {
+            synchronized (cache) {
+                // Skipped if any user changed during the load, which may have read the old row
+                if (invalidations.get() == seen) {
+                    cache.put(principal.getId(), new CachedPrincipal(principal,
+                            System.currentTimeMillis() + ttlSeconds * 1000));
+                    idsByEmail.put(principal.getEmail(), principal.getId());
+                }
+            }
+        }
+        return principal;
+    }
 
-        return UserPrincipal.create(user);
+    private record CachedPrincipal(UserPrincipal principal, long expiresAt) {
     }
 }
@@ -1,9 +1,5 @@
 package com.banking.security;
 
-import com.banking.model.User;
-import com.banking.repository.UserRepository;
-import com.banking.service.UserService;
-import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -22,8 +18,7 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class FirebaseAuthenticationFilter extends OncePerRequestFilter {
 
-    private final UserRepository userRepository;
-    private final UserService userService;
+    private final FirebaseTokenVerifier firebaseTokenVerifier;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -37,19 +32,15 @@ public class FirebaseAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        if (header != null && header.startsWith("Bearer ")) {
-            String idToken = header.substring(7);
+        // Our own JWTs, including expired ones, never reach Firebase
+        String idToken = header != null && header.startsWith("Bearer ") ? header.substring(7) : null;
+        if (idToken != null && firebaseTokenVerifier.isFirebaseToken(idToken)) {
             try {
-                FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(idToken);
-                String email = decodedToken.getEmail();
+                FirebaseToken decodedToken = firebaseTokenVerifier.verify(idToken);
 
-                if (email != null) {
-                    User user = userRepository.findByEmail(email).orElseGet(() -> {
-                        // Auto-register user if they exist in Firebase but not in our DB
-                        return userService.registerFirebaseUser(decodedToken);
-                    });
-
-                    UserPrincipal userPrincipal = UserPrincipal.create(user);
+                if (decodedToken.getEmail() != null) {
+                    // Auto-registers the user if they exist in Firebase but not in our DB
+                    UserPrincipal userPrincipal = firebaseTokenVerifier.loadPrincipal(decodedToken);
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                             userPrincipal, null, userPrincipal.getAuthorities());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -62,8 +53,7 @@ public class FirebaseAuthenticationFilter extends OncePerRequestFilter {
                         && (e.getMessage().contains("execute statement") || e.getMessage().contains("constraint"))) {
                     logger.error("CRITICAL ERROR during Firebase user sync: " + e.getMessage(), e);
                 } else {
-                    // Not a Firebase token, or verification failed.
-                    // Log at DEBUG level to avoid noise for valid JWTs
+                    // Verification failed
                     logger.debug("Firebase token info: " + e.getMessage());
                 }
             }
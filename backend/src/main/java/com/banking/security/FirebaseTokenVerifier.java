@@ -0,0 +1,220 @@
+package com.banking.security;
+
+import com.banking.model.User;
+import com.banking.repository.UserRepository;
+import com.banking.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.FirebaseToken;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verifies Firebase ID tokens for the Firebase filter and sign-in. Tokens are
+ * told apart from our own JWTs by their header and issuer before any
+ * verification, verified tokens are cached by hash until they expire, and
+ * concurrent first sign-ins for the same email register the user once.
+ */
+@Service
+@RequiredArgsConstructor
+public class FirebaseTokenVerifier {
+
+    private static final String ISSUER_PREFIX = "https://securetoken.google.com/";
+
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final CustomUserDetailsService customUserDetailsService;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${auth.firebase-cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${auth.firebase-cache.size:10000}")
+    private int cacheSize;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong registrations = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private final Map<String, CachedToken> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedToken> eldest) {
+            if (size() > cacheSize) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // One registration per email at a time on this instance; the unique email column covers the others
+    private final Map<String, CompletableFuture<User>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * True for an RS256 token with a key id issued by Firebase. Only the
+     * header and payload are decoded; nothing is verified here.
+     */
+    public boolean isFirebaseToken(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            skipped.incrementAndGet();
+            return false;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            JsonNode header = objectMapper.readTree(decoder.decode(parts[0]));
+            if (!header.hasNonNull("kid") || !"RS256".equals(header.path("alg").asText())) {
+                skipped.incrementAndGet();
+                return false;
+            }
+            JsonNode payload = objectMapper.readTree(decoder.decode(parts[1]));
+            if (!payload.path("iss").asText().startsWith(ISSUER_PREFIX)) {
+                skipped.incrementAndGet();
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            skipped.incrementAndGet();
+            return false;
+        }
+    }
+
+    public FirebaseToken verify(String idToken) throws FirebaseAuthException {
+        String key = cacheEnabled ? hash(idToken) : null;
+        if (key != null) {
+            synchronized (cache) {
+                CachedToken cached = cache.get(key);
+                if (cached != null) {
+                    if (cached.expiresAt() > System.currentTimeMillis()) {
+                        hits.incrementAndGet();
+                        return cached.token();
+                    }
+                    cache.remove(key);
+                }
+            }
+        }
+        misses.incrementAndGet();
+        FirebaseToken token = FirebaseAuth.getInstance().verifyIdToken(idToken);
+        if (key != null && token.getClaims().get("exp") instanceof Number exp) {
+            synchronized (cache) {
+                cache.put(key, new CachedToken(token, exp.longValue() * 1000));
+            }
+        }
+        return token;
+    }
+
+    // The token's user through the principal cache, registering them on their first request
+    public UserPrincipal loadPrincipal(FirebaseToken token) {
+        try {
+            return (UserPrincipal) customUserDetailsService.loadUserByUsername(token.getEmail());
+        } catch (UsernameNotFoundException e) {
+            return UserPrincipal.create(resolveUser(token));
+        }
+    }
+
+    public User resolveUser(FirebaseToken token) {
+        String email = token.getEmail();
+        Optional<User> existing = findOnPrimary(email);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        CompletableFuture<User> mine = new CompletableFuture<>();
+        CompletableFuture<User> running = inFlight.putIfAbsent(email, mine);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            User user = register(token);
+            mine.complete(user);
+            return user;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(email, mine);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        return Map.of(
+                "enabled", cacheEnabled,
+                "hits", hitCount,
+                "misses", misses.get(),
+                "evictions", evictions.get(),
+                "size", size,
+                "hitRatio", total == 0 ? 0.0 : (double) hitCount / total,
+                "nonFirebaseTokensSkipped", skipped.get(),
+                "registrations", registrations.get(),
+                "registrationsCoalesced", coalesced.get());
+    }
+
+    // Checked again inside the flight, which may have started just after an earlier one finished
+    private User register(FirebaseToken token) {
+        String email = token.getEmail();
+        Optional<User> existing = findOnPrimary(email);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        try {
+            User user = userService.registerFirebaseUser(token);
+            registrations.incrementAndGet();
+            return user;
+        } catch (DataIntegrityViolationException e) {
+            // Another instance registered the same email first
+            return findOnPrimary(email).orElseThrow(() -> e);
+        }
+    }
+
+    // Not read-only, so a user registered moments ago is found even when reads go to a replica
+    private Optional<User> findOnPrimary(String email) {
+        return new TransactionTemplate(transactionManager).execute(status -> userRepository.findByEmail(email));
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record CachedToken(FirebaseToken token, long expiresAt) {
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -23,6 +24,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
+    private final com.banking.service.PrincipalRevocationService principalRevocationService;
+
+    // Opt-in: build the principal from the token's claims instead of loading the user on every request
+    @Value("${auth.stateless.enabled:false}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -31,9 +37,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromToken(jwt);
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
+            JwtTokenProvider.TokenClaims claims = StringUtils.hasText(jwt)
+                    ? tokenProvider.validateAndExtract(jwt).orElse(null)
+                    : null;
+            if (claims != null) {
+                UserDetails userDetails = statelessPrincipal(claims)
+                        ? UserPrincipal.fromClaims(claims)
+                        : customUserDetailsService.loadUserById(claims.userId());
 
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
@@ -48,6 +58,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Tokens without the principal claims, or issued before the user last changed, are loaded from the database
+    private boolean statelessPrincipal(JwtTokenProvider.TokenClaims claims) {
+        return stateless && claims.carriesPrincipal() && principalRevocationService.isReady()
+                && !principalRevocationService.isRevoked(claims.userId(), claims.revocation());
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
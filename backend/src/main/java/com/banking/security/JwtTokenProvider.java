@@ -2,18 +2,27 @@ package com.banking.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import com.banking.service.PrincipalRevocationService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
+    private final PrincipalRevocationService principalRevocationService;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -23,8 +32,14 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-expiration}")
     private long refreshExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // Both are immutable and thread-safe, so they are built once rather than per token
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
     public String generateToken(Authentication authentication) {
@@ -40,10 +55,16 @@ public class JwtTokenProvider {
         return Jwts.builder()
                 .subject(Long.toString(userPrincipal.getId()))
                 .claim("email", userPrincipal.getEmail())
+                .claim("name", userPrincipal.getFirstName())
                 .claim("roles", roles)
+                .claim("enabled", userPrincipal.isEnabled())
+                .claim("locked", !userPrincipal.isAccountNonLocked())
+                .claim("tpinSet", userPrincipal.isTpinSet())
+                .claim("loginPinSet", userPrincipal.isLoginPinSet())
+                .claim("rv", principalRevocationService.tokenVersion(userPrincipal.getId()))
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -57,29 +78,51 @@ public class JwtTokenProvider {
                 .subject(Long.toString(userPrincipal.getId()))
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Verifies the signature and expiry and reads the claims in a single
+     * parse. Empty for a malformed, tampered or expired token.
+     */
+    public Optional<TokenClaims> validateAndExtract(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            String roles = claims.get("roles", String.class);
+            Number revocation = claims.get("rv", Number.class);
+            return Optional.of(new TokenClaims(
+                    Long.parseLong(claims.getSubject()),
+                    claims.get("email", String.class),
+                    claims.get("name", String.class),
+                    roles == null || roles.isEmpty() ? List.of() : Arrays.asList(roles.split(",")),
+                    claims.get("enabled", Boolean.class),
+                    claims.get("locked", Boolean.class),
+                    claims.get("tpinSet", Boolean.class),
+                    claims.get("loginPinSet", Boolean.class),
+                    revocation == null ? null : revocation.longValue(),
+                    claims.getIssuedAt(),
+                    claims.getExpiration()));
+        } catch (JwtException | IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+    }
 
-        return Long.parseLong(claims.getSubject());
+    public Long getUserIdFromToken(String token) {
+        return Long.parseLong(parser.parseSignedClaims(token).getPayload().getSubject());
     }
 
     public boolean validateToken(String authToken) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
-        } catch (JwtException | IllegalArgumentException ex) {
-            return false;
+        return validateAndExtract(authToken).isPresent();
+    }
+
+    // Refresh tokens carry only the subject and dates; so did access tokens issued before the principal claims
+    public record TokenClaims(Long userId, String email, String firstName, List<String> roles, Boolean enabled,
+            Boolean locked, Boolean tpinSet, Boolean loginPinSet, Long revocation, Date issuedAt, Date expiration) {
+
+        public boolean carriesPrincipal() {
+            return email != null && firstName != null && enabled != null && locked != null && tpinSet != null
+                    && loginPinSet != null && revocation != null;
         }
     }
 }
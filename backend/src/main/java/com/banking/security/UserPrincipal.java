@@ -41,6 +41,28 @@ public class UserPrincipal implements UserDetails {
                 user.getLoginPinSet());
     }
 
+    /**
+     * Rebuilds the principal from the claims of a verified access token
+     * without touching the database. There is no password hash; it is only
+     * needed when logging in, which always loads the user.
+     */
+    public static UserPrincipal fromClaims(JwtTokenProvider.TokenClaims claims) {
+        Collection<GrantedAuthority> authorities = claims.roles().stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role))
+                .collect(Collectors.toList());
+
+        return new UserPrincipal(
+                claims.userId(),
+                claims.email(),
+                claims.firstName(),
+                null,
+                authorities,
+                claims.enabled(),
+                !claims.locked(),
+                claims.tpinSet(),
+                claims.loginPinSet());
+    }
+
     @Override
     public String getPassword() {
         return password;
@@ -0,0 +1,127 @@
+package com.banking.service;
+
+import com.banking.model.NumberSequence;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.NumberSequenceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Hands out 12-digit account numbers: an 11-digit serial followed by a Luhn
+ * check digit. Serials are reserved from {@code number_sequences} in blocks
+ * (hi/lo), so opening an account normally costs no database access at all;
+ * numbers left in a block when the node stops are simply never issued.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountNumberAllocator {
+
+    private static final String SEQUENCE_NAME = "account_number";
+    private static final long MAX_SERIAL = 99_999_999_999L;
+
+    private final NumberSequenceRepository numberSequenceRepository;
+    private final AccountRepository accountRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${accounts.number.block-size:100}")
+    private int blockSize;
+
+    @Value("${accounts.number.start:10000000000}")
+    private long startSerial;
+
+    private long next;
+    private long limit;
+
+    // Legacy random numbers that fall inside the current block
+    private Set<String> taken = Set.of();
+
+    public synchronized String nextAccountNumber() {
+        while (true) {
+            if (next >= limit) {
+                reserveBlock();
+            }
+            String accountNumber = format(next++);
+            if (!taken.contains(accountNumber)) {
+                return accountNumber;
+            }
+        }
+    }
+
+    public static boolean hasValidCheckDigit(String accountNumber) {
+        if (accountNumber == null || !accountNumber.matches("\\d{12}")) {
+            return false;
+        }
+        return checkDigit(accountNumber.substring(0, 11)) == accountNumber.charAt(11) - '0';
+    }
+
+    private void reserveBlock() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        // Commit the reservation on its own so it survives a rolled-back account opening
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        long low;
+        try {
+            low = template.execute(status -> advance());
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the sequence row first
+            low = template.execute(status -> advance());
+        }
+
+        long high = Math.min(low + blockSize, MAX_SERIAL + 1);
+        if (low > MAX_SERIAL) {
+            throw new IllegalStateException("Account number space exhausted");
+        }
+
+        // Numbers issued before the allocator existed were random, so look up the
+        // few that might fall inside this block once, instead of on every opening.
+        taken = new HashSet<>(accountRepository.findAccountNumbersBetween(
+                String.format("%011d", low) + "0", String.format("%011d", high - 1) + "9"));
+        next = low;
+        limit = high;
+        log.debug("Reserved account number block [{}, {})", low, high);
+    }
+
+    private long advance() {
+        NumberSequence sequence = numberSequenceRepository.findByNameForUpdate(SEQUENCE_NAME)
+                .orElse(null);
+        if (sequence == null) {
+            numberSequenceRepository.saveAndFlush(new NumberSequence(SEQUENCE_NAME, startSerial + blockSize));
+            return startSerial;
+        }
+        long low = sequence.getNextValue();
+        sequence.setNextValue(low + blockSize);
+        return low;
+    }
+
+    private static String format(long serial) {
+        String body = String.format("%011d", serial);
+        return body + checkDigit(body);
+    }
+
+    private static int checkDigit(String body) {
+        int sum = 0;
+        boolean doubleIt = true;
+        for (int i = body.length() - 1; i >= 0; i--) {
+            int digit = body.charAt(i) - '0';
+            if (doubleIt) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubleIt = !doubleIt;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -1,41 +1,125 @@
 package com.banking.service;
 
 import com.banking.model.Account;
+import com.banking.model.OutboxEvent;
+import com.banking.model.SyncChange;
 import com.banking.model.Transaction;
 import com.banking.model.User;
+import com.banking.payload.TransactionPage;
 import com.banking.payload.TransferRequest;
 import com.banking.repository.AccountRepository;
 import com.banking.repository.TransactionRepository;
 import com.banking.repository.UserRepository;
 import com.banking.security.UserPrincipal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AccountService {
 
+    // Rows read per account per round trip when merging the all-accounts feed
+    private static final int MIN_TIMELINE_CHUNK = 8;
+    private static final int FULL_HISTORY_CHUNK = 500;
+
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
     private final com.banking.repository.CardRepository cardRepository;
-    private final SimpMessagingTemplate messagingTemplate;
-    private final PasswordEncoder passwordEncoder;
-    private final EmailService emailService;
+    private final com.banking.repository.LedgerEntryRepository ledgerEntryRepository;
+    private final com.banking.repository.BalanceSnapshotRepository balanceSnapshotRepository;
+    private final com.banking.repository.HotAccountSlotRepository hotAccountSlotRepository;
+    private final com.banking.repository.DailyBalanceRepository dailyBalanceRepository;
+    private final com.banking.repository.MonthlyInsightRepository monthlyInsightRepository;
+    private final com.banking.repository.MonthlyCounterpartyRepository monthlyCounterpartyRepository;
+    private final com.banking.repository.TransactionSegmentBlockRepository transactionSegmentBlockRepository;
+    private final com.banking.repository.StandingInstructionRepository standingInstructionRepository;
+    private final TransferEngine transferEngine;
+    private final LedgerService ledgerService;
+    private final IdempotencyService idempotencyService;
+    private final OutboxService outboxService;
+    private final TransactionSigningService transactionSigningService;
+    private final IdGenerator idGenerator;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final ReplicaLagGuard replicaLagGuard;
+    private final SyncService syncService;
+
+    @Value("${transfer.group-commit.enabled:false}")
+    private boolean groupCommitEnabled;
+
+    @Value("${transfer.group-commit.window-micros:2000}")
+    private long groupCommitWindowMicros;
+
+    @Value("${transfer.group-commit.max-batch:128}")
+    private int groupCommitMaxBatch;
+
+    @Value("${transfer.group-commit.committers:2}")
+    private int groupCommitCommitters;
+
+    // How long a caller waits for a committer before running its transfer on its own
+    @Value("${transfer.group-commit.timeout-ms:5000}")
+    private long groupCommitTimeoutMs;
+
+    @Value("${transactions.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${transactions.page.max-size:200}")
+    private int maxPageSize;
+
+    private TransferBatcher transferBatcher;
+
+    @PostConstruct
+    public void startGroupCommit() {
+        if (groupCommitEnabled) {
+            transferBatcher = new TransferBatcher(groupCommitWindowMicros, groupCommitMaxBatch,
+                    groupCommitCommitters, groupCommitTimeoutMs, this::commitBatch);
+        }
+    }
+
+    @PreDestroy
+    public void stopGroupCommit() {
+        if (transferBatcher != null) {
+            transferBatcher.shutdown();
+        }
+    }
 
+    public Map<String, Object> groupCommitStats() {
+        return transferBatcher != null ? transferBatcher.stats() : Map.of("enabled", false);
+    }
+
+    // Read-only so the ledger balance written onto the entity below is never
+    // flushed back to the accounts table.
+    @Transactional(readOnly = true)
     public List<Account> getUserAccounts(UserPrincipal userPrincipal) {
-        return accountRepository.findByUserId(userPrincipal.getId());
+        List<Account> accounts = accountRepository.findByUserId(userPrincipal.getId());
+        accounts.forEach(account -> account.setBalance(ledgerService.balanceOf(account)));
+        return accounts;
     }
 
+    @Transactional(readOnly = true)
     public Account getAccountById(UserPrincipal userPrincipal, Long id) {
         Account account = accountRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
@@ -44,6 +128,7 @@ public class AccountService {
             throw new RuntimeException("Unauthorized access to account details");
         }
 
+        account.setBalance(ledgerService.balanceOf(account));
         return account;
     }
 
@@ -63,7 +148,7 @@ public class AccountService {
         account.setPhoneNumber(cleanPhone);
         account.setAccountType(request.getAccountType());
         account.setBalance(request.getInitialDeposit() != null ? request.getInitialDeposit() : BigDecimal.ZERO);
-        account.setAccountNumber(generateAccountNumber());
+        account.setAccountNumber(accountNumberAllocator.nextAccountNumber());
         account.setStatus(Account.AccountStatus.ACTIVE);
 
         // Primary Logic: Sync phone to user profile.
@@ -71,7 +156,9 @@ public class AccountService {
         // user's primary contact.
         syncUserPhone(user, cleanPhone);
 
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        syncService.recordChange(user.getId(), SyncChange.EntityType.ACCOUNT, saved.getId(), false);
+        return saved;
     }
 
     private String sanitizePhone(String phoneNumber) {
@@ -88,62 +175,146 @@ public class AccountService {
         return digits;
     }
 
-    @Transactional
     public Transaction transferMoney(UserPrincipal userPrincipal, TransferRequest request) {
-        Account fromAccount = accountRepository.findByAccountNumber(request.getFromAccountNumber())
-                .orElseThrow(() -> new RuntimeException("Source account not found"));
+        return transferMoney(userPrincipal, request, null);
+    }
 
-        if (!fromAccount.getUser().getId().equals(userPrincipal.getId())) {
-            throw new RuntimeException("Unauthorized transfer attempt");
+    public Transaction transferMoney(UserPrincipal userPrincipal, TransferRequest request, String idempotencyKey) {
+        return transfer(userPrincipal.getId(), request, idempotencyKey, false);
+    }
+
+    /**
+     * Runs a transfer the user authorized earlier with their TPIN, such as an
+     * occurrence of a standing instruction. No TPIN or signing token is checked.
+     */
+    public Transaction transferPreAuthorized(Long userId, TransferRequest request, String idempotencyKey) {
+        return transfer(userId, request, idempotencyKey, true);
+    }
+
+    private Transaction transfer(Long userId, TransferRequest request, String idempotencyKey,
+            boolean preAuthorized) {
+        Transaction transaction = runTransfer(userId, request, idempotencyKey, preAuthorized);
+        // Also covers group commit, where the write commits on a committer thread
+        replicaLagGuard.recordWrite(userId);
+        return transaction;
+    }
+
+    private Transaction runTransfer(Long userId, TransferRequest request, String idempotencyKey,
+            boolean preAuthorized) {
+        // Verify TPIN before any row locks are taken so the BCrypt check does not
+        // hold up other transfers waiting on the same accounts, and before the
+        // idempotency replay so a key cannot stand in for the TPIN. Transfers signed
+        // with a step-up token are authorized inside the transaction instead.
+        boolean signed = !preAuthorized && request.getSigningToken() != null
+                && !request.getSigningToken().isEmpty();
+        if (!preAuthorized && !signed) {
+            transactionSigningService.verifyTpin(userId, request.getTpin());
         }
 
-        // Verify TPIN
-        if (request.getTpin() == null || request.getTpin().isEmpty()) {
-            throw new RuntimeException("TPIN is required");
+        String requestHash = null;
+        if (idempotencyKey != null) {
+            idempotencyService.validateKey(idempotencyKey);
+            requestHash = idempotencyService.fingerprint(request);
+            Optional<Transaction> replay = idempotencyService.findReplay(userId, idempotencyKey, requestHash);
+            if (replay.isPresent()) {
+                return replay.get();
+            }
         }
 
-        User user = fromAccount.getUser();
-        if (user.getTpin() == null || !passwordEncoder.matches(request.getTpin(), user.getTpin())) {
-            throw new RuntimeException("Invalid TPIN");
+        // Idempotent and token-signed transfers write more than the ledger rows,
+        // so they always take the one-transaction-per-transfer path.
+        if (transferBatcher != null && idempotencyKey == null && !signed) {
+            try {
+                return transferBatcher.execute(userId, request);
+            } catch (TransferBatcher.BatchAbortedException e) {
+                // The batch failed as a whole or never took this transfer; run it on its own below
+            }
         }
 
-        Account toAccount = accountRepository.findByAccountNumber(request.getToAccountNumber())
-                .orElseThrow(() -> new RuntimeException("Destination account not found"));
+        String fingerprint = requestHash;
+        try {
+            return transferEngine.execute(() -> {
+                TransferEngine.LockedPair accounts = transferEngine.lockForTransfer(request.getFromAccountNumber(),
+                        request.getToAccountNumber());
+
+                if (!accounts.from().getUser().getId().equals(userId)) {
+                    throw new RuntimeException("Unauthorized transfer attempt");
+                }
+
+                if (idempotencyKey != null) {
+                    // A duplicate that raced us on the same source account committed while we waited for the lock
+                    Optional<Transaction> replay = idempotencyService.findStoredReplay(userId, idempotencyKey,
+                            fingerprint);
+                    if (replay.isPresent()) {
+                        return replay.get();
+                    }
+                }
+
+                Transaction transaction = applyTransfer(accounts.from(), accounts.to(), request);
+
+                if (signed) {
+                    transactionSigningService.consume(userId, request.getSigningToken(),
+                            request.getDeviceId(), request.getAmount());
+                }
+
+                if (idempotencyKey != null) {
+                    idempotencyService.record(userId, idempotencyKey, fingerprint,
+                            transaction.getTransactionId());
+                }
+                return transaction;
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (idempotencyKey == null) {
+                throw e;
+            }
+            // Lost the race on the idempotency key's unique index
+            return idempotencyService.findStoredReplay(userId, idempotencyKey, fingerprint)
+                    .orElseThrow(() -> e);
+        }
+    }
 
-        if (fromAccount.getBalance().compareTo(request.getAmount()) < 0) {
-            throw new RuntimeException("Insufficient funds");
+    public void verifyTpin(UserPrincipal userPrincipal, String tpin) {
+        transactionSigningService.verifyTpin(userPrincipal, tpin);
+    }
+
+    // Expects the source account to be locked by the caller's transaction.
+    private Transaction applyTransfer(Account fromAccount, Account toAccount, TransferRequest request) {
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            throw new RuntimeException("Transfer amount must be greater than zero");
         }
 
-        // Debit
-        fromAccount.setBalance(fromAccount.getBalance().subtract(request.getAmount()));
-        accountRepository.save(fromAccount);
+        BigDecimal fromBalance = ledgerService.balanceOf(fromAccount);
+        if (fromBalance.compareTo(request.getAmount()) < 0) {
+            throw new RuntimeException("Insufficient funds");
+        }
 
-        // Credit
-        toAccount.setBalance(toAccount.getBalance().add(request.getAmount()));
-        accountRepository.save(toAccount);
+        // Neither account row is updated: both legs are ledger inserts. The
+        // destination is not locked, so its balance here is a point-in-time value
+        // for the statement line and notification only.
+        BigDecimal fromBalanceAfter = fromBalance.subtract(request.getAmount());
+        BigDecimal toBalanceAfter = fromAccount == toAccount ? fromBalance
+                : ledgerService.balanceOf(toAccount).add(request.getAmount());
 
         // Record Transaction for Sender
         Transaction transaction = new Transaction();
-        transaction.setTransactionId(UUID.randomUUID().toString());
+        transaction.setTransactionId(idGenerator.nextId());
         transaction.setType(Transaction.TransactionType.TRANSFER);
         transaction.setAmount(request.getAmount());
         transaction.setAccount(fromAccount);
-        transaction.setBalanceAfter(fromAccount.getBalance());
+        transaction.setBalanceAfter(fromBalanceAfter);
         transaction.setRecipientAccountNumber(toAccount.getAccountNumber());
         transaction.setRecipientName(toAccount.getUser().getFirstName() + " " + toAccount.getUser().getLastName());
         transaction.setDescription(request.getDescription());
         transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
         Transaction savedTransaction = transactionRepository.save(transaction);
-        System.out.println("DEBUG: Created DEBIT transaction: " + savedTransaction.getTransactionId() + " for user: "
-                + fromAccount.getUser().getEmail());
 
         // Mirror transaction for recipient
         Transaction creditTransaction = new Transaction();
-        creditTransaction.setTransactionId("CR-" + UUID.randomUUID().toString());
+        creditTransaction.setTransactionId("CR-" + idGenerator.nextId());
         creditTransaction.setType(Transaction.TransactionType.DEPOSIT); // Use DEPOSIT for incoming
         creditTransaction.setAmount(request.getAmount());
         creditTransaction.setAccount(toAccount);
-        creditTransaction.setBalanceAfter(toAccount.getBalance());
+        creditTransaction.setBalanceAfter(toBalanceAfter);
         creditTransaction.setRecipientAccountNumber(fromAccount.getAccountNumber()); // Source
         creditTransaction
                 .setRecipientName(fromAccount.getUser().getFirstName() + " " + fromAccount.getUser().getLastName());
@@ -151,65 +322,165 @@ public class AccountService {
                 "Received from " + fromAccount.getUser().getFirstName() + ": " + request.getDescription());
         creditTransaction.setStatus(Transaction.TransactionStatus.COMPLETED);
         Transaction savedCredit = transactionRepository.save(creditTransaction);
-        System.out.println("DEBUG: Created CREDIT transaction: " + savedCredit.getTransactionId() + " for user: "
-                + toAccount.getUser().getEmail());
+        log.debug("Created transfer {} from account {} with credit {} to account {}", savedTransaction.getTransactionId(),
+                fromAccount.getId(), savedCredit.getTransactionId(), toAccount.getId());
+
+        ledgerService.post(fromAccount, toAccount, request.getAmount(), savedTransaction.getTransactionId(),
+                savedCredit.getTransactionId());
+
+        publishTransferEvents(fromAccount, toAccount, request.getAmount(), savedTransaction.getTransactionId(),
+                savedCredit.getTransactionId(), fromBalanceAfter, toBalanceAfter);
+
+        return savedTransaction;
+    }
+
+    /**
+     * Applies a group-commit batch in one transaction: sources are locked in
+     * account-number order, each leg is validated against running balances, and
+     * the valid legs are written with JDBC batches. A leg that fails validation
+     * only fails its own caller.
+     */
+    private void commitBatch(List<TransferBatcher.Pending> batch) {
+        Map<TransferBatcher.Pending, Object> outcomes = transferEngine.execute(() -> applyBatch(batch));
+
+        List<String> transactionIds = outcomes.values().stream()
+                .filter(String.class::isInstance).map(String.class::cast).toList();
+        Map<String, Transaction> committed;
+        try {
+            committed = transactionIds.isEmpty() ? Map.of()
+                    : transactionRepository.findByTransactionIdIn(transactionIds).stream()
+                            .collect(Collectors.toMap(Transaction::getTransactionId, transaction -> transaction));
+        } catch (RuntimeException e) {
+            // The batch has committed, so its callers must not fall back and apply their transfers again
+            RuntimeException unloaded = new RuntimeException(
+                    "Transfer completed but could not be loaded; check your transactions");
+            outcomes.forEach((pending, outcome) -> pending.result()
+                    .completeExceptionally(outcome instanceof String ? unloaded : (RuntimeException) outcome));
+            return;
+        }
 
+        outcomes.forEach((pending, outcome) -> {
+            if (outcome instanceof String transactionId) {
+                pending.result().complete(committed.get(transactionId));
+            } else {
+                pending.result().completeExceptionally((RuntimeException) outcome);
+            }
+        });
+    }
+
+    private Map<TransferBatcher.Pending, Object> applyBatch(List<TransferBatcher.Pending> batch) {
+        Map<TransferBatcher.Pending, Object> outcomes = new LinkedHashMap<>();
+
+        // Sorted lock order, so batches locking several sources cannot deadlock each other
+        Map<String, Account> sources = new HashMap<>();
+        batch.stream().map(pending -> pending.request().getFromAccountNumber()).filter(Objects::nonNull)
+                .distinct().sorted()
+                .forEach(number -> accountRepository.findByAccountNumberForUpdate(number)
+                        .ifPresent(account -> sources.put(number, account)));
+
+        Set<String> destinationNumbers = batch.stream().map(pending -> pending.request().getToAccountNumber())
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<String, Account> destinations = destinationNumbers.isEmpty() ? Map.of()
+                : accountRepository.findWithUserByAccountNumberIn(destinationNumbers).stream()
+                        .collect(Collectors.toMap(Account::getAccountNumber, account -> account));
+
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        List<LedgerService.Posting> postings = new ArrayList<>(batch.size());
+
+        for (TransferBatcher.Pending pending : batch) {
+            TransferRequest request = pending.request();
+            Account from = sources.get(request.getFromAccountNumber());
+            Account to = destinations.get(request.getToAccountNumber());
+
+            String error = null;
+            if (from == null) {
+                error = "Source account not found";
+            } else if (!from.getUser().getId().equals(pending.userId())) {
+                error = "Unauthorized transfer attempt";
+            } else if (to == null) {
+                error = "Destination account not found";
+            } else if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+                error = "Transfer amount must be greater than zero";
+            } else if (balances.computeIfAbsent(from.getId(), id -> ledgerService.balanceOf(from))
+                    .compareTo(request.getAmount()) < 0) {
+                error = "Insufficient funds";
+            }
+            if (error != null) {
+                outcomes.put(pending, new RuntimeException(error));
+                continue;
+            }
+
+            BigDecimal fromBalanceAfter = balances.get(from.getId()).subtract(request.getAmount());
+            balances.put(from.getId(), fromBalanceAfter);
+            BigDecimal toBalanceAfter = balances.computeIfAbsent(to.getId(), id -> ledgerService.balanceOf(to))
+                    .add(request.getAmount());
+            balances.put(to.getId(), toBalanceAfter);
+
+            String debitTransactionId = idGenerator.nextId();
+            String creditTransactionId = "CR-" + idGenerator.nextId();
+            postings.add(new LedgerService.Posting(from, to, request.getAmount(), request.getDescription(),
+                    debitTransactionId, creditTransactionId, fromBalanceAfter, toBalanceAfter));
+            publishTransferEvents(from, to, request.getAmount(), debitTransactionId, creditTransactionId,
+                    fromBalanceAfter, toBalanceAfter);
+            outcomes.put(pending, debitTransactionId);
+        }
+
+        ledgerService.postAll(postings);
+        return outcomes;
+    }
+
+    private void publishTransferEvents(Account fromAccount, Account toAccount, BigDecimal amount,
+            String debitTransactionId, String creditTransactionId, BigDecimal fromBalanceAfter,
+            BigDecimal toBalanceAfter) {
         // Create structured notifications for real-time monitoring
         java.util.Map<String, Object> senderNotice = new java.util.HashMap<>();
         senderNotice.put("type", "BALANCE_UPDATE");
-        senderNotice.put("message", String.format("Balance updated: -₹%,.2f", request.getAmount()));
-        senderNotice.put("amount", request.getAmount().negate());
+        senderNotice.put("message", String.format("Balance updated: -₹%,.2f", amount));
+        senderNotice.put("amount", amount.negate());
 
         java.util.Map<String, Object> receiverNotice = new java.util.HashMap<>();
         receiverNotice.put("type", "TRANSACTION_RECEIVED");
-        receiverNotice.put("message", String.format("You received: ₹%,.2f from %s", request.getAmount(),
+        receiverNotice.put("message", String.format("You received: ₹%,.2f from %s", amount,
                 fromAccount.getUser().getFirstName()));
-        receiverNotice.put("amount", request.getAmount());
-
-        // Notify Sender via WebSocket
-        messagingTemplate.convertAndSend(
-                "/topic/user/" + fromAccount.getUser().getId(),
-                senderNotice);
+        receiverNotice.put("amount", amount);
 
-        // Notify Receiver via WebSocket
-        messagingTemplate.convertAndSend(
-                "/topic/user/" + toAccount.getUser().getId(),
-                receiverNotice);
+        // Side effects go through the outbox: they are delivered by OutboxRelay
+        // only after this transaction commits, and never for a rolled-back transfer.
+        outboxService.publishWebSocket("/topic/user/" + fromAccount.getUser().getId(), senderNotice);
+        outboxService.publishWebSocket("/topic/user/" + toAccount.getUser().getId(), receiverNotice);
 
         // Notify via Email (Mandatory for security)
-        emailService.sendDebitNotification(
+        outboxService.publishEmail(OutboxEvent.EventType.DEBIT_EMAIL, fromAccount.getUser().getEmail(), List.of(
                 fromAccount.getUser().getEmail(),
                 fromAccount.getUser().getFirstName(),
-                request.getAmount().toString(),
+                amount.toString(),
                 toAccount.getUser().getFirstName() + " " + toAccount.getUser().getLastName(),
-                savedTransaction.getTransactionId(),
+                debitTransactionId,
                 fromAccount.getAccountNumber(),
                 toAccount.getAccountNumber(),
-                fromAccount.getBalance().toString());
+                fromBalanceAfter.toString()));
 
-        emailService.sendCreditNotification(
+        outboxService.publishEmail(OutboxEvent.EventType.CREDIT_EMAIL, toAccount.getUser().getEmail(), List.of(
                 toAccount.getUser().getEmail(),
                 toAccount.getUser().getFirstName(),
-                request.getAmount().toString(),
+                amount.toString(),
                 fromAccount.getUser().getFirstName() + " " + fromAccount.getUser().getLastName(),
-                creditTransaction.getTransactionId(),
+                creditTransactionId,
                 toAccount.getAccountNumber(),
                 fromAccount.getAccountNumber(),
-                toAccount.getBalance().toString());
-
-        return savedTransaction;
-    }
-
-    private String generateAccountNumber() {
-        // Generate a 12-digit random number
-        StringBuilder sb = new StringBuilder();
-        java.util.Random random = new java.util.Random();
-        for (int i = 0; i < 12; i++) {
-            sb.append(random.nextInt(10));
-        }
-        return sb.toString();
+                toBalanceAfter.toString()));
+
+        java.util.Map<String, Object> audit = new java.util.HashMap<>();
+        audit.put("event", "TRANSFER");
+        audit.put("transactionId", debitTransactionId);
+        audit.put("fromAccount", fromAccount.getAccountNumber());
+        audit.put("toAccount", toAccount.getAccountNumber());
+        audit.put("amount", amount);
+        audit.put("userId", fromAccount.getUser().getId());
+        outboxService.publishAudit(audit);
     }
 
+    @Transactional(readOnly = true)
     public List<Transaction> getAccountTransactions(UserPrincipal userPrincipal, Long accountId) {
         Account account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
@@ -221,8 +492,81 @@ public class AccountService {
         return transactionRepository.findByAccountIdOrderByIdDesc(accountId);
     }
 
+    @Transactional(readOnly = true)
     public List<Transaction> getAllUserTransactions(UserPrincipal userPrincipal) {
-        return transactionRepository.findAllByUserId(userPrincipal.getId());
+        List<Long> accountIds = accountRepository.findByUserId(userPrincipal.getId()).stream()
+                .map(Account::getId).toList();
+        return new TransactionTimeline(transactionRepository, accountIds, Long.MAX_VALUE, FULL_HISTORY_CHUNK)
+                .take(Integer.MAX_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionPage getAccountTransactionsPage(UserPrincipal userPrincipal, Long accountId, String cursor,
+            Integer limit) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+
+        if (!account.getUser().getId().equals(userPrincipal.getId())) {
+            throw new RuntimeException("Unauthorized access to account transactions");
+        }
+
+        int size = pageSize(limit);
+        return toPage(transactionRepository.findPageByAccountId(accountId, decodeCursor(cursor),
+                PageRequest.of(0, size + 1)), size);
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionPage getAllUserTransactionsPage(UserPrincipal userPrincipal, String cursor, Integer limit) {
+        List<Long> accountIds = accountRepository.findByUserId(userPrincipal.getId()).stream()
+                .map(Account::getId).toList();
+        if (accountIds.isEmpty()) {
+            return new TransactionPage(List.of(), null, false);
+        }
+
+        // Each account needs about its share of the page; busier accounts refill as the merge drains them
+        int size = pageSize(limit);
+        int chunk = Math.min(size + 1, Math.max(MIN_TIMELINE_CHUNK, (size + 1) / accountIds.size() + 1));
+        return toPage(new TransactionTimeline(transactionRepository, accountIds, decodeCursor(cursor), chunk)
+                .take(size + 1), size);
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1 || limit > maxPageSize) {
+            throw new RuntimeException("limit must be between 1 and " + maxPageSize);
+        }
+        return limit;
+    }
+
+    // One row past the page is fetched to tell whether another page exists
+    private TransactionPage toPage(List<Transaction> rows, int size) {
+        boolean hasMore = rows.size() > size;
+        List<Transaction> items = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? encodeCursor(items.get(items.size() - 1).getId()) : null;
+        return new TransactionPage(items, nextCursor, hasMore);
+    }
+
+    // The cursor is opaque to clients so the keyset can change without breaking them
+    private String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("t1:" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith("t1:")) {
+                throw new IllegalArgumentException();
+            }
+            return Long.parseLong(decoded.substring(3));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
     }
 
     @Transactional
@@ -237,12 +581,25 @@ public class AccountService {
         // 1. Delete associated transactions first (FK constraint)
         transactionRepository.deleteByAccountId(account.getId());
 
-        // 2. Delete associated cards (FK constraint)
+        // 2. Delete associated cards and ledger history (FK constraint)
+        cardRepository.findByAccountId(account.getId()).ifPresent(card -> syncService
+                .recordChange(userPrincipal.getId(), SyncChange.EntityType.CARD, card.getId(), true));
         cardRepository.deleteByAccountId(account.getId());
+        ledgerEntryRepository.deleteByAccountId(account.getId());
+        balanceSnapshotRepository.deleteByAccountId(account.getId());
+        hotAccountSlotRepository.deleteByAccountId(account.getId());
+        dailyBalanceRepository.deleteByAccountId(account.getId());
+        monthlyInsightRepository.deleteByAccountId(account.getId());
+        monthlyCounterpartyRepository.deleteByAccountId(account.getId());
+        transactionSegmentBlockRepository.deleteByAccountId(account.getId());
+
+        // Instructions paying from or into the account would otherwise fail on every run
+        standingInstructionRepository.cancelByAccountNumber(account.getAccountNumber());
 
         // 3. Finally delete the account
         User user = account.getUser();
         accountRepository.delete(account);
+        syncService.recordChange(userPrincipal.getId(), SyncChange.EntityType.ACCOUNT, account.getId(), true);
 
         // 4. Sync profile number from remaining accounts
         updateUserProfilePhone(user);
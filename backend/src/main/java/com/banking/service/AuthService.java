@@ -28,6 +28,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AccountRepository accountRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final PrincipalRevocationService principalRevocationService;
 
     @Value("${twilio.account_sid:none}")
     private String twilioAccountSid;
@@ -91,6 +92,7 @@ public class AuthService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        principalRevocationService.revoke(user.getId());
 
         otpTokenRepository.delete(otpToken); // Cleanup after success
 
@@ -504,6 +506,7 @@ public class AuthService {
         user.setLoginPin(passwordEncoder.encode(newPin));
         user.setLoginPinSet(true);
         userRepository.save(user);
+        principalRevocationService.revoke(user.getId());
     }
 
     @Transactional
@@ -0,0 +1,467 @@
+package com.banking.service;
+
+import com.banking.model.Account;
+import com.banking.model.BulkTransferJob;
+import com.banking.model.BulkTransferResult;
+import com.banking.model.OutboxEvent;
+import com.banking.payload.BulkTransferStatus;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.BulkTransferJobRepository;
+import com.banking.repository.BulkTransferResultRepository;
+import com.banking.security.UserPrincipal;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a file of transfer legs from one source account. The file is spooled
+ * to disk and read line by line; every chunk of legs is posted in a single
+ * transaction with JDBC batches, together with its per-leg results and the
+ * job's counters, so any instance can answer a status poll. The TPIN is
+ * verified once per file and the sender gets one summary email instead of one
+ * per leg. Notices go through the outbox in the transaction that caused them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkTransferService {
+
+    private static final String ABANDONED = "Interrupted before the file was finished; only the listed legs were applied";
+
+    private final AccountService accountService;
+    private final AccountRepository accountRepository;
+    private final BulkTransferJobRepository bulkTransferJobRepository;
+    private final BulkTransferResultRepository bulkTransferResultRepository;
+    private final TransferEngine transferEngine;
+    private final LedgerService ledgerService;
+    private final OutboxService outboxService;
+    private final ReplicaLagGuard replicaLagGuard;
+    private final PlatformTransactionManager transactionManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final IdGenerator idGenerator;
+
+    @Value("${transfer.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${transfer.bulk.workers:2}")
+    private int workers;
+
+    @Value("${transfer.bulk.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Value("${transfer.bulk.results-page-size:200}")
+    private int resultsPageSize;
+
+    // An unfinished job whose owner has not refreshed it for this long is failed
+    @Value("${transfer.bulk.stale-ms:300000}")
+    private long staleMs;
+
+    // Owner of the jobs started here; the spooled files do not survive a restart
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(workers);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public BulkTransferStatus submit(UserPrincipal userPrincipal, String fromAccountNumber, String tpin,
+            MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("Transfer file is required");
+        }
+
+        Account fromAccount = accountRepository.findByAccountNumber(fromAccountNumber)
+                .orElseThrow(() -> new RuntimeException("Source account not found"));
+        if (!fromAccount.getUser().getId().equals(userPrincipal.getId())) {
+            throw new RuntimeException("Unauthorized transfer attempt");
+        }
+
+        accountService.verifyTpin(userPrincipal, tpin);
+
+        // The multipart temp file is removed when the request completes, so keep
+        // our own copy for the worker.
+        Path spool;
+        try {
+            spool = Files.createTempFile("bulk-transfer-", ".tmp");
+            file.transferTo(spool);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read transfer file", e);
+        }
+
+        BulkTransferJob job = new BulkTransferJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setUserId(userPrincipal.getId());
+        job.setFromAccountNumber(fromAccountNumber);
+        job.setOwner(instanceId);
+        job.setHeartbeatAt(LocalDateTime.now());
+        job = bulkTransferJobRepository.save(job);
+
+        Job running = new Job(job.getId(), job.getUserId(), fromAccountNumber);
+        boolean jsonLines = isJsonLines(file.getOriginalFilename());
+        try {
+            executor.submit(() -> run(running, spool, jsonLines, userPrincipal));
+        } catch (RejectedExecutionException e) {
+            deleteSpool(spool);
+            finish(running, BulkTransferJob.Status.FAILED, "Not accepted: the server is shutting down", userPrincipal);
+            throw new RuntimeException("Bulk transfers are not being accepted right now. Please try again.");
+        }
+        return toStatus(job, List.of());
+    }
+
+    public BulkTransferStatus getStatus(UserPrincipal userPrincipal, String jobId, int afterLine) {
+        BulkTransferJob job = bulkTransferJobRepository.findById(jobId)
+                .filter(found -> found.getUserId().equals(userPrincipal.getId()))
+                .orElseThrow(() -> new RuntimeException("Bulk transfer not found"));
+        List<BulkTransferResult> results = bulkTransferResultRepository
+                .findByJobIdAndLineNumberGreaterThanOrderByLineNumber(jobId, afterLine,
+                        PageRequest.of(0, resultsPageSize));
+        return toStatus(job, results);
+    }
+
+    // Keeps this instance's unfinished jobs alive and fails those of instances that stopped
+    @Scheduled(fixedDelayString = "${transfer.bulk.heartbeat-ms:30000}")
+    public void heartbeat() {
+        LocalDateTime now = LocalDateTime.now();
+        bulkTransferJobRepository.heartbeat(instanceId, now);
+        int abandoned = bulkTransferJobRepository.failAbandoned(now.minus(Duration.ofMillis(staleMs)), ABANDONED, now);
+        if (abandoned > 0) {
+            log.warn("Failed {} bulk transfers whose instance stopped running them", abandoned);
+        }
+    }
+
+    @Scheduled(cron = "${transfer.bulk.purge-cron:0 */10 * * * *}")
+    public void purgeFinished() {
+        LocalDateTime before = LocalDateTime.now().minusMinutes(retentionMinutes);
+        bulkTransferResultRepository.deleteForJobsCompletedBefore(before);
+        bulkTransferJobRepository.deleteCompletedBefore(before);
+    }
+
+    private void run(Job job, Path spool, boolean jsonLines, UserPrincipal sender) {
+        BulkTransferJob.Status outcome = BulkTransferJob.Status.COMPLETED;
+        String message = null;
+        try (BufferedReader reader = Files.newBufferedReader(spool, StandardCharsets.UTF_8)) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                BulkTransferJob entity = load(job);
+                entity.setStatus(BulkTransferJob.Status.RUNNING);
+                entity.setHeartbeatAt(LocalDateTime.now());
+            });
+
+            List<Leg> chunk = new ArrayList<>(chunkSize);
+            // Written with the next chunk, so results stay in line order for paging
+            List<BulkTransferStatus.LegResult> rejected = new ArrayList<>();
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                Leg leg;
+                try {
+                    leg = jsonLines ? parseJsonLine(line, lineNumber) : parseCsvLine(line, lineNumber);
+                } catch (Exception e) {
+                    // Tolerate a CSV header row
+                    if (lineNumber == 1 && !jsonLines) {
+                        continue;
+                    }
+                    rejected.add(new BulkTransferStatus.LegResult(lineNumber, null, null, false, null,
+                            "Malformed line: " + e.getMessage()));
+                    continue;
+                }
+
+                chunk.add(leg);
+                if (chunk.size() >= chunkSize) {
+                    applyChunk(job, chunk, rejected, sender);
+                    chunk = new ArrayList<>(chunkSize);
+                    rejected = new ArrayList<>();
+                }
+            }
+            if (!chunk.isEmpty() || !rejected.isEmpty()) {
+                applyChunk(job, chunk, rejected, sender);
+            }
+        } catch (Exception e) {
+            log.error("Bulk transfer {} aborted", job.id(), e);
+            outcome = BulkTransferJob.Status.FAILED;
+            message = e.getMessage();
+        } finally {
+            deleteSpool(spool);
+        }
+        finish(job, outcome, message, sender);
+    }
+
+    private void applyChunk(Job job, List<Leg> chunk, List<BulkTransferStatus.LegResult> rejected,
+            UserPrincipal sender) {
+        try {
+            transferEngine.execute(() -> postChunk(job, chunk, rejected, sender));
+        } catch (Exception e) {
+            List<BulkTransferStatus.LegResult> failed = new ArrayList<>(rejected);
+            chunk.stream().map(leg -> failure(leg, e.getMessage())).forEach(failed::add);
+            failed.sort((a, b) -> Integer.compare(a.getLine(), b.getLine()));
+            new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> recordProgress(job, failed, BigDecimal.ZERO));
+        }
+        // The worker has no signed-in user, so the sender's reads are kept on the primary here
+        replicaLagGuard.recordWrite(job.userId());
+    }
+
+    private BulkTransferJob postChunk(Job job, List<Leg> chunk, List<BulkTransferStatus.LegResult> rejected,
+            UserPrincipal sender) {
+        List<BulkTransferStatus.LegResult> results = new ArrayList<>(rejected.size() + chunk.size());
+        results.addAll(rejected);
+        if (chunk.isEmpty()) {
+            return recordProgress(job, results, BigDecimal.ZERO);
+        }
+
+        Account fromAccount = transferEngine.lockForDebit(job.fromAccountNumber());
+        if (!fromAccount.getUser().getId().equals(job.userId())) {
+            throw new RuntimeException("Unauthorized transfer attempt");
+        }
+
+        Set<String> accountNumbers = chunk.stream().map(Leg::toAccountNumber).collect(Collectors.toSet());
+        Map<String, Account> destinations = accountRepository.findWithUserByAccountNumberIn(accountNumbers).stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, account -> account));
+
+        BigDecimal balance = ledgerService.balanceOf(fromAccount);
+        BigDecimal debited = BigDecimal.ZERO;
+        Map<Long, BigDecimal> destinationBalances = new HashMap<>();
+        List<LedgerService.Posting> postings = new ArrayList<>(chunk.size());
+        List<Credit> credits = new ArrayList<>(chunk.size());
+
+        for (Leg leg : chunk) {
+            Account toAccount = destinations.get(leg.toAccountNumber());
+            if (toAccount == null) {
+                results.add(failure(leg, "Destination account not found"));
+                continue;
+            }
+            if (toAccount.getId().equals(fromAccount.getId())) {
+                results.add(failure(leg, "Cannot transfer to the source account"));
+                continue;
+            }
+            if (balance.compareTo(leg.amount()) < 0) {
+                results.add(failure(leg, "Insufficient funds"));
+                continue;
+            }
+
+            balance = balance.subtract(leg.amount());
+            debited = debited.add(leg.amount());
+            BigDecimal toBalance = destinationBalances
+                    .computeIfAbsent(toAccount.getId(), id -> ledgerService.balanceOf(toAccount))
+                    .add(leg.amount());
+            destinationBalances.put(toAccount.getId(), toBalance);
+
+            String debitTransactionId = idGenerator.nextId();
+            String creditTransactionId = "CR-" + idGenerator.nextId();
+            postings.add(new LedgerService.Posting(fromAccount, toAccount, leg.amount(), leg.description(),
+                    debitTransactionId, creditTransactionId, balance, toBalance));
+            results.add(new BulkTransferStatus.LegResult(leg.line(), leg.toAccountNumber(), leg.amount(), true,
+                    debitTransactionId, null));
+            credits.add(new Credit(toAccount.getUser().getId(), leg.amount()));
+        }
+
+        ledgerService.postAll(postings);
+        results.sort((a, b) -> Integer.compare(a.getLine(), b.getLine()));
+        BulkTransferJob progress = recordProgress(job, results, debited);
+
+        // Recipients get a real-time push only; emailing every payee of a payroll
+        // file would dominate the outbox.
+        for (Credit credit : credits) {
+            Map<String, Object> notice = new HashMap<>();
+            notice.put("type", "TRANSACTION_RECEIVED");
+            notice.put("message", String.format("You received: ₹%,.2f from %s", credit.amount(),
+                    sender.getFirstName()));
+            notice.put("amount", credit.amount());
+            outboxService.publishWebSocket("/topic/user/" + credit.userId(), notice);
+        }
+
+        Map<String, Object> notice = new HashMap<>();
+        notice.put("type", "BULK_TRANSFER_PROGRESS");
+        notice.put("jobId", job.id());
+        notice.put("processed", progress.getProcessed());
+        notice.put("failed", progress.getFailed());
+        outboxService.publishWebSocket("/topic/user/" + job.userId(), notice);
+        return progress;
+    }
+
+    // Runs in the chunk's transaction, so the counters and results always match the postings
+    private BulkTransferJob recordProgress(Job job, List<BulkTransferStatus.LegResult> results, BigDecimal debited) {
+        jdbcTemplate.batchUpdate("INSERT INTO bulk_transfer_results (job_id, line_number, to_account_number, "
+                + "amount, success, transaction_id, message) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                results.stream().map(result -> new Object[] { job.id(), result.getLine(),
+                        result.getToAccountNumber(), result.getAmount(), result.isSuccess(),
+                        result.getTransactionId(), truncate(result.getMessage()) }).toList());
+
+        int succeeded = (int) results.stream().filter(BulkTransferStatus.LegResult::isSuccess).count();
+        BulkTransferJob entity = load(job);
+        entity.setProcessed(entity.getProcessed() + results.size());
+        entity.setSucceeded(entity.getSucceeded() + succeeded);
+        entity.setFailed(entity.getFailed() + results.size() - succeeded);
+        entity.setTotalDebited(entity.getTotalDebited().add(debited));
+        entity.setHeartbeatAt(LocalDateTime.now());
+        return entity;
+    }
+
+    private void finish(Job job, BulkTransferJob.Status outcome, String message, UserPrincipal sender) {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                BulkTransferJob entity = load(job);
+                entity.setStatus(outcome);
+                entity.setMessage(truncate(message));
+                entity.setCompletedAt(LocalDateTime.now());
+                publishSummary(entity, sender);
+            });
+        } catch (Exception e) {
+            log.warn("Could not record the end of bulk transfer {}: {}", job.id(), e.getMessage());
+        }
+    }
+
+    private void publishSummary(BulkTransferJob job, UserPrincipal sender) {
+        Map<String, Object> notice = new HashMap<>();
+        notice.put("type", "BULK_TRANSFER_COMPLETED");
+        notice.put("jobId", job.getId());
+        notice.put("status", job.getStatus());
+        notice.put("succeeded", job.getSucceeded());
+        notice.put("failed", job.getFailed());
+        notice.put("amount", job.getTotalDebited().negate());
+        outboxService.publishWebSocket("/topic/user/" + job.getUserId(), notice);
+
+        if (job.getSucceeded() == 0) {
+            return;
+        }
+
+        Account fromAccount = accountRepository.findByAccountNumber(job.getFromAccountNumber()).orElse(null);
+        String balance = fromAccount != null ? ledgerService.balanceOf(fromAccount).toString() : "-";
+        outboxService.publishEmail(OutboxEvent.EventType.DEBIT_EMAIL, sender.getEmail(), List.of(
+                sender.getEmail(),
+                sender.getFirstName(),
+                job.getTotalDebited().toString(),
+                job.getSucceeded() + " payees (bulk transfer)",
+                job.getId(),
+                job.getFromAccountNumber(),
+                "BULK",
+                balance));
+    }
+
+    private BulkTransferJob load(Job job) {
+        return bulkTransferJobRepository.findById(job.id())
+                .orElseThrow(() -> new RuntimeException("Bulk transfer not found"));
+    }
+
+    private BulkTransferStatus toStatus(BulkTransferJob job, List<BulkTransferResult> results) {
+        BulkTransferStatus status = new BulkTransferStatus();
+        status.setJobId(job.getId());
+        status.setFromAccountNumber(job.getFromAccountNumber());
+        status.setStatus(BulkTransferStatus.Status.valueOf(job.getStatus().name()));
+        status.setProcessed(job.getProcessed());
+        status.setSucceeded(job.getSucceeded());
+        status.setFailed(job.getFailed());
+        status.setTotalDebited(job.getTotalDebited());
+        status.setMessage(job.getMessage());
+        status.setCreatedAt(job.getCreatedAt());
+        status.setCompletedAt(job.getCompletedAt());
+        status.setResults(results.stream().map(result -> new BulkTransferStatus.LegResult(result.getLineNumber(),
+                result.getToAccountNumber(), result.getAmount(), result.isSuccess(), result.getTransactionId(),
+                result.getMessage())).collect(Collectors.toList()));
+        if (results.size() == resultsPageSize) {
+            status.setNextResultsAfterLine(results.get(results.size() - 1).getLineNumber());
+        }
+        return status;
+    }
+
+    private void deleteSpool(Path spool) {
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            log.warn("Could not delete bulk transfer spool file {}", spool);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 255 ? message.substring(0, 255) : message;
+    }
+
+    private boolean isJsonLines(String fileName) {
+        if (fileName == null) {
+            return false;
+        }
+        String name = fileName.toLowerCase();
+        return name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json");
+    }
+
+    // toAccountNumber,amount[,description] - the description may contain commas
+    private Leg parseCsvLine(String line, int lineNumber) {
+        String[] parts = line.split(",", 3);
+        if (parts.length < 2) {
+            throw new IllegalArgumentException("expected toAccountNumber,amount[,description]");
+        }
+        String description = parts.length > 2 ? parts[2].trim() : null;
+        return leg(lineNumber, parts[0].trim(), new BigDecimal(parts[1].trim()), description);
+    }
+
+    private Leg parseJsonLine(String line, int lineNumber) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        if (!node.hasNonNull("toAccountNumber") || !node.hasNonNull("amount")) {
+            throw new IllegalArgumentException("toAccountNumber and amount are required");
+        }
+        String description = node.hasNonNull("description") ? node.get("description").asText() : null;
+        return leg(lineNumber, node.get("toAccountNumber").asText(), new BigDecimal(node.get("amount").asText()), description);
+    }
+
+    private Leg leg(int lineNumber, String toAccountNumber, BigDecimal amount, String description) {
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("amount must be greater than zero");
+        }
+        return new Leg(lineNumber, toAccountNumber, amount, description);
+    }
+
+    private BulkTransferStatus.LegResult failure(Leg leg, String message) {
+        return new BulkTransferStatus.LegResult(leg.line(), leg.toAccountNumber(), leg.amount(), false, null, message);
+    }
+
+    private record Job(String id, Long userId, String fromAccountNumber) {
+    }
+
+    private record Leg(int line, String toAccountNumber, BigDecimal amount, String description) {
+    }
+
+    private record Credit(Long userId, BigDecimal amount) {
+    }
+}
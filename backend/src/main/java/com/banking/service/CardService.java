@@ -2,6 +2,7 @@ package com.banking.service;
 
 import com.banking.model.Account;
 import com.banking.model.Card;
+import com.banking.model.SyncChange;
 import com.banking.repository.AccountRepository;
 import com.banking.repository.CardRepository;
 import com.banking.security.UserPrincipal;
@@ -23,6 +24,7 @@ public class CardService {
     private final AccountRepository accountRepository;
     private final AuthService authService;
     private final PasswordEncoder passwordEncoder;
+    private final SyncService syncService;
 
     @Transactional(readOnly = true)
     public Optional<Card> getCardForUser(UserPrincipal user) {
@@ -50,6 +52,7 @@ public class CardService {
 
         card.setPin(passwordEncoder.encode(pin));
         cardRepository.save(card);
+        syncService.recordChange(user.getId(), SyncChange.EntityType.CARD, card.getId(), false);
     }
 
     @Transactional
@@ -61,6 +64,7 @@ public class CardService {
             throw new RuntimeException("Unauthorized");
         }
         cardRepository.delete(card);
+        syncService.recordChange(user.getId(), SyncChange.EntityType.CARD, card.getId(), true);
     }
 
     @Transactional
@@ -75,6 +79,7 @@ public class CardService {
         // Let's set status to BLOCKED as a way of 'unlinking' it from active use.
         card.setStatus(Card.CardStatus.BLOCKED);
         cardRepository.save(card);
+        syncService.recordChange(user.getId(), SyncChange.EntityType.CARD, card.getId(), false);
     }
 
     @Transactional
@@ -108,7 +113,9 @@ public class CardService {
         card.setStatus(Card.CardStatus.ACTIVE);
         card.setCardType(Card.CardType.DEBIT);
 
-        return cardRepository.save(card);
+        Card saved = cardRepository.save(card);
+        syncService.recordChange(user.getId(), SyncChange.EntityType.CARD, saved.getId(), false);
+        return saved;
     }
 
     private String generateUniqueCardNumber() {
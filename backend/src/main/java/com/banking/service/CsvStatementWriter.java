@@ -0,0 +1,70 @@
+package com.banking.service;
+
+import com.banking.model.Account;
+import com.banking.model.Transaction;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+class CsvStatementWriter implements StatementWriter {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final BufferedWriter out;
+    private long rows;
+
+    CsvStatementWriter(OutputStream outputStream) {
+        this.out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void header(Account account, LocalDate from, LocalDate to) throws IOException {
+        out.write("Date,Transaction ID,Type,Description,Counterparty Account,Counterparty,Debit,Credit,Balance,Status\n");
+        // Flushed so the download starts at once instead of after the first buffer of rows
+        out.flush();
+    }
+
+    @Override
+    public void row(Transaction transaction) throws IOException {
+        boolean debit = StatementWriter.isDebit(transaction);
+        out.write(String.join(",",
+                transaction.getCreatedAt().toString(),
+                escape(transaction.getTransactionId()),
+                transaction.getType().name(),
+                escape(transaction.getDescription()),
+                escape(transaction.getRecipientAccountNumber()),
+                escape(transaction.getRecipientName()),
+                debit ? transaction.getAmount().toPlainString() : "",
+                debit ? "" : transaction.getAmount().toPlainString(),
+                transaction.getBalanceAfter() != null ? transaction.getBalanceAfter().toPlainString() : "",
+                transaction.getStatus().name()));
+        out.write('\n');
+        if (++rows % FLUSH_EVERY == 0) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void finish(long count, BigDecimal totalDebits, BigDecimal totalCredits) throws IOException {
+        out.flush();
+    }
+
+    // RFC 4180 quoting; a leading formula character is neutralised for spreadsheet apps
+    private String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,318 @@
+package com.banking.service;
+
+import com.banking.model.Account;
+import com.banking.model.DailyBalance;
+import com.banking.model.NumberSequence;
+import com.banking.payload.BalancePoint;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.DailyBalanceRepository;
+import com.banking.repository.LedgerEntryRepository;
+import com.banking.repository.NumberSequenceRepository;
+import com.banking.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * End-of-day balances. A nightly job writes one {@code daily_balances} row per
+ * account that had ledger activity that day, in chunks with JDBC batches.
+ * Balance-as-of queries read the latest row on or before the date and only
+ * add ledger entries for days the job has not processed yet, which is at
+ * most the previous day in normal operation. The watermark only moves past a
+ * day once all of its chunks have committed, and a lease row keeps the job on
+ * one instance at a time.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DailyBalanceService {
+
+    // number_sequences row holding the epoch day of the first day not yet processed
+    private static final String WATERMARK = "daily_balances";
+
+    // number_sequences row holding the epoch millis until which one instance owns the nightly job
+    private static final String LEASE = "daily_balances_lease";
+
+    // Upper bound for "everything after" sums; LocalDateTime.MAX does not fit a DATETIME column
+    private static final LocalDateTime OPEN_END = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final DailyBalanceRepository dailyBalanceRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final AccountRepository accountRepository;
+    private final NumberSequenceRepository numberSequenceRepository;
+    private final LedgerService ledgerService;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${balances.daily.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${balances.daily.max-catch-up-days:31}")
+    private int maxCatchUpDays;
+
+    @Value("${balances.daily.max-series-days:366}")
+    private int maxSeriesDays;
+
+    // Must outlast the snapshot of one day; renewed after every day
+    @Value("${balances.daily.lease-minutes:30}")
+    private long leaseMinutes;
+
+    /**
+     * Snapshots the days from the watermark up to yesterday, at most the
+     * catch-up limit per run; a longer backlog continues on the next run. A
+     * day whose snapshot fails stays unprocessed and is retried next run.
+     */
+    @Scheduled(cron = "${balances.daily.cron:0 30 0 * * *}")
+    public void snapshotPreviousDays() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        createRows(yesterday);
+        Lease lease = acquireLease(yesterday);
+        if (lease == null) {
+            return;
+        }
+        try {
+            LocalDate last = lease.next().plusDays(maxCatchUpDays - 1L);
+            if (last.isAfter(yesterday)) {
+                last = yesterday;
+            }
+            for (LocalDate day = lease.next(); !day.isAfter(last) && lease != null; day = day.plusDays(1)) {
+                snapshotDay(day, false);
+                lease = advance(lease, day);
+            }
+        } finally {
+            if (lease != null) {
+                releaseLease(lease);
+            }
+        }
+    }
+
+    /**
+     * Writes end-of-day rows for one day. Re-running a day replaces its rows.
+     * With {@code allAccounts} every account gets a row, which is how history
+     * is seeded for accounts that predate this job.
+     */
+    public int snapshotDay(LocalDate date, boolean allAccounts) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        int written = 0;
+
+        if (allAccounts) {
+            long afterId = 0;
+            List<Long> ids;
+            while (!(ids = accountRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize))).isEmpty()) {
+                List<Long> chunk = ids;
+                written += template.execute(status -> writeChunk(chunk, date));
+                afterId = ids.get(ids.size() - 1);
+            }
+        } else {
+            List<Long> active = ledgerEntryRepository.findAccountIdsWithEntriesCreatedBetween(date.atStartOfDay(),
+                    date.plusDays(1).atStartOfDay());
+            for (int i = 0; i < active.size(); i += chunkSize) {
+                List<Long> chunk = active.subList(i, Math.min(i + chunkSize, active.size()));
+                written += template.execute(status -> writeChunk(chunk, date));
+            }
+        }
+
+        log.info("Wrote {} daily balances for {}", written, date);
+        return written;
+    }
+
+    @Transactional(readOnly = true)
+    public BalancePoint balanceAsOf(UserPrincipal userPrincipal, Long accountId, LocalDate date) {
+        Account account = ownedAccount(userPrincipal, accountId);
+        return new BalancePoint(date, balanceAt(account, date, processedUpTo()));
+    }
+
+    /**
+     * One point per day from {@code from} to {@code to}: the rows in the range
+     * plus the row before it, filled forward over days without activity.
+     */
+    @Transactional(readOnly = true)
+    public List<BalancePoint> balanceSeries(UserPrincipal userPrincipal, Long accountId, LocalDate from,
+            LocalDate to) {
+        Account account = ownedAccount(userPrincipal, accountId);
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new RuntimeException("A valid date range is required");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxSeriesDays) {
+            throw new RuntimeException("Balance history cannot exceed " + maxSeriesDays + " days");
+        }
+
+        LocalDate processed = processedUpTo();
+        LocalDate today = LocalDate.now();
+
+        Map<LocalDate, BigDecimal> rows = new HashMap<>();
+        dailyBalanceRepository.findByAccountIdAndBalanceDateBetweenOrderByBalanceDate(accountId, from, to)
+                .forEach(row -> rows.put(row.getBalanceDate(), row.getBalance()));
+
+        List<BalancePoint> series = new ArrayList<>();
+        BigDecimal balance = balanceAt(account, from.minusDays(1), processed);
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (!day.isBefore(today)) {
+                series.add(new BalancePoint(day, day.isEqual(today) ? ledgerService.balanceOf(account) : null));
+                continue;
+            }
+            if (processed == null || day.isAfter(processed)) {
+                balance = balance.add(ledgerEntryRepository.sumCreatedBetween(accountId, day.atStartOfDay(),
+                        day.plusDays(1).atStartOfDay()));
+            } else if (rows.containsKey(day)) {
+                balance = rows.get(day);
+            }
+            series.add(new BalancePoint(day, balance));
+        }
+        return series;
+    }
+
+    // Balance at the end of the given day
+    private BigDecimal balanceAt(Account account, LocalDate date, LocalDate processed) {
+        if (!date.isBefore(LocalDate.now())) {
+            return ledgerService.balanceOf(account);
+        }
+
+        Optional<DailyBalance> row = processed == null ? Optional.empty()
+                : dailyBalanceRepository.findTopByAccountIdAndBalanceDateLessThanEqualOrderByBalanceDateDesc(
+                        account.getId(), date.isAfter(processed) ? processed : date);
+        if (row.isEmpty()) {
+            // No history yet for this account: work back from the live balance
+            return ledgerService.balanceOf(account).subtract(ledgerEntryRepository.sumCreatedBetween(account.getId(),
+                    date.plusDays(1).atStartOfDay(), OPEN_END));
+        }
+        if (!date.isAfter(processed)) {
+            return row.get().getBalance();
+        }
+        // Days the nightly job has not covered yet
+        return row.get().getBalance().add(ledgerEntryRepository.sumCreatedBetween(account.getId(),
+                processed.plusDays(1).atStartOfDay(), date.plusDays(1).atStartOfDay()));
+    }
+
+    private int writeChunk(List<Long> accountIds, LocalDate date) {
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = date.plusDays(1).atStartOfDay();
+
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        for (Object[] row : ledgerEntryRepository.sumByAccountCreatedBetween(accountIds, start, end)) {
+            deltas.put((Long) row[0], (BigDecimal) row[1]);
+        }
+        Map<Long, BigDecimal> previous = new HashMap<>();
+        dailyBalanceRepository.findLatestBefore(accountIds, date)
+                .forEach(row -> previous.put(row.getAccountId(), row.getBalance()));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(accountIds.size());
+        for (Long accountId : accountIds) {
+            BigDecimal balance;
+            if (previous.containsKey(accountId)) {
+                balance = previous.get(accountId).add(deltas.getOrDefault(accountId, BigDecimal.ZERO));
+            } else {
+                // First row for this account: current balance minus everything after the day
+                Account account = accountRepository.findById(accountId).orElse(null);
+                if (account == null) {
+                    continue;
+                }
+                balance = ledgerService.balanceOf(account)
+                        .subtract(ledgerEntryRepository.sumCreatedBetween(accountId, end, OPEN_END));
+            }
+            rows.add(new Object[] { accountId, Date.valueOf(date), balance, now });
+        }
+
+        dailyBalanceRepository.deleteForDate(date, accountIds);
+        jdbcTemplate.batchUpdate("INSERT INTO daily_balances (account_id, balance_date, balance, created_at) "
+                + "VALUES (?, ?, ?, ?)", rows);
+        return rows.size();
+    }
+
+    // On the first run the watermark starts at yesterday; older days are seeded from the admin endpoint
+    private void createRows(LocalDate yesterday) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        for (NumberSequence row : List.of(new NumberSequence(WATERMARK, yesterday.toEpochDay()),
+                new NumberSequence(LEASE, 0L))) {
+            try {
+                template.executeWithoutResult(status -> {
+                    if (numberSequenceRepository.findById(row.getName()).isEmpty()) {
+                        numberSequenceRepository.saveAndFlush(row);
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created it at the same time
+            }
+        }
+    }
+
+    // Takes the lease when it is free and there is a day to process; null otherwise
+    private Lease acquireLease(LocalDate yesterday) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            NumberSequence lease = numberSequenceRepository.findByNameForUpdate(LEASE).orElse(null);
+            NumberSequence watermark = numberSequenceRepository.findById(WATERMARK).orElse(null);
+            long now = System.currentTimeMillis();
+            if (lease == null || watermark == null || lease.getNextValue() > now
+                    || watermark.getNextValue() > yesterday.toEpochDay()) {
+                return null;
+            }
+            long until = now + leaseMinutes * 60_000;
+            lease.setNextValue(until);
+            return new Lease(LocalDate.ofEpochDay(watermark.getNextValue()), until);
+        });
+    }
+
+    // Moves the watermark past a day whose chunks have all committed and renews the lease; null if it was lost
+    private Lease advance(Lease held, LocalDate day) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            NumberSequence lease = numberSequenceRepository.findByNameForUpdate(LEASE).orElse(null);
+            if (lease == null || lease.getNextValue() != held.until()) {
+                log.warn("Daily balance lease lost after {}; stopping", day);
+                return null;
+            }
+            NumberSequence watermark = numberSequenceRepository.findByNameForUpdate(WATERMARK).orElseThrow();
+            watermark.setNextValue(Math.max(watermark.getNextValue(), day.plusDays(1).toEpochDay()));
+            long until = System.currentTimeMillis() + leaseMinutes * 60_000;
+            lease.setNextValue(until);
+            return new Lease(day.plusDays(1), until);
+        });
+    }
+
+    private void releaseLease(Lease held) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> numberSequenceRepository
+                .findByNameForUpdate(LEASE)
+                .filter(lease -> lease.getNextValue() == held.until())
+                .ifPresent(lease -> lease.setNextValue(0L)));
+    }
+
+    // Last day the nightly job has written, or null before its first run
+    private LocalDate processedUpTo() {
+        return numberSequenceRepository.findById(WATERMARK)
+                .map(watermark -> LocalDate.ofEpochDay(watermark.getNextValue() - 1))
+                .orElse(null);
+    }
+
+    private Account ownedAccount(UserPrincipal userPrincipal, Long accountId) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        if (!account.getUser().getId().equals(userPrincipal.getId())) {
+            throw new RuntimeException("Unauthorized access to account balance");
+        }
+        return account;
+    }
+
+    // First day still to process and the lease expiry this instance set
+    private record Lease(LocalDate next, long until) {
+    }
+}
@@ -20,6 +20,17 @@ public class EmailService {
     @Async
     public void sendDebitNotification(String to, String firstName, String amount, String recipient,
             String transactionId, String userAcc, String partnerAcc, String balance) {
+        try {
+            deliverDebitNotification(to, firstName, amount, recipient, transactionId, userAcc, partnerAcc, balance);
+        } catch (Exception e) {
+            // Already logged by deliverDebitNotification
+        }
+    }
+
+    // Synchronous variant that throws on failure, so the outbox relay can retry
+    public void deliverDebitNotification(String to, String firstName, String amount, String recipient,
+            String transactionId, String userAcc, String partnerAcc, String balance)
+            throws jakarta.mail.MessagingException, java.io.UnsupportedEncodingException {
         System.out.println("SMTP: Preparing debit notification for " + to);
         try {
             jakarta.mail.internet.MimeMessage message = mailSender.createMimeMessage();
@@ -88,12 +99,24 @@ public class EmailService {
             System.out.println("SMTP: Debit notification successfully delivered to relay for " + to);
         } catch (Exception e) {
             System.err.println("SMTP ERROR: Failed to send debit notification to " + to + ": " + e.getMessage());
+            throw e;
         }
     }
 
     @Async
     public void sendCreditNotification(String to, String firstName, String amount, String sender,
             String transactionId, String userAcc, String partnerAcc, String balance) {
+        try {
+            deliverCreditNotification(to, firstName, amount, sender, transactionId, userAcc, partnerAcc, balance);
+        } catch (Exception e) {
+            // Already logged by deliverCreditNotification
+        }
+    }
+
+    // Synchronous variant that throws on failure, so the outbox relay can retry
+    public void deliverCreditNotification(String to, String firstName, String amount, String sender,
+            String transactionId, String userAcc, String partnerAcc, String balance)
+            throws jakarta.mail.MessagingException, java.io.UnsupportedEncodingException {
         System.out.println("SMTP: Preparing credit notification for " + to);
         try {
             jakarta.mail.internet.MimeMessage message = mailSender.createMimeMessage();
@@ -160,6 +183,7 @@ public class EmailService {
             System.out.println("SMTP: Credit notification successfully delivered to relay for " + to);
         } catch (Exception e) {
             System.err.println("SMTP ERROR: Failed to send credit notification to " + to + ": " + e.getMessage());
+            throw e;
         }
     }
 
@@ -0,0 +1,12 @@
+package com.banking.service;
+
+/**
+ * Source of transaction and journal ids. The implementation is picked with
+ * {@code ids.generator} ({@code snowflake} by default, {@code uuid} for the
+ * previous random ids). Ids are stored as strings, so rows written by either
+ * generator coexist in the same columns.
+ */
+public interface IdGenerator {
+
+    String nextId();
+}
@@ -0,0 +1,187 @@
+package com.banking.service;
+
+import com.banking.model.IdempotencyKey;
+import com.banking.model.Transaction;
+import com.banking.payload.TransferRequest;
+import com.banking.repository.IdempotencyKeyRepository;
+import com.banking.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deduplicates transfers carrying an {@code Idempotency-Key} header. Keys are
+ * stored in a unique-indexed table written in the same transaction as the
+ * transfer, with a bounded LRU/TTL cache in front so that retries from the
+ * same client are answered without a database round trip for the key.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionRepository transactionRepository;
+
+    @Value("${transfer.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${transfer.idempotency.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final Map<String, CachedKey> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedKey> eldest) {
+            if (size() > cacheSize) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    public void validateKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    public String fingerprint(TransferRequest request) {
+        String canonical = request.getFromAccountNumber() + "|" + request.getToAccountNumber() + "|"
+                + (request.getAmount() != null ? request.getAmount().stripTrailingZeros().toPlainString() : "") + "|"
+                + (request.getDescription() != null ? request.getDescription() : "");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the transaction created by an earlier request with the same key,
+     * checking the cache first and then the table.
+     */
+    public Optional<Transaction> findReplay(Long userId, String idempotencyKey, String requestHash) {
+        String cacheKey = cacheKey(userId, idempotencyKey);
+        CachedKey cached;
+        synchronized (cache) {
+            cached = cache.get(cacheKey);
+            if (cached != null && cached.expiresAt().isBefore(LocalDateTime.now())) {
+                cache.remove(cacheKey);
+                cached = null;
+            }
+        }
+
+        if (cached != null) {
+            hits.incrementAndGet();
+            return Optional.of(load(cached.transactionId(), cached.requestHash(), requestHash));
+        }
+
+        misses.incrementAndGet();
+        return findStoredReplay(userId, idempotencyKey, requestHash);
+    }
+
+    /**
+     * Table-only lookup. Used inside the transfer transaction after the source
+     * account is locked, where a concurrent duplicate may have just committed.
+     */
+    public Optional<Transaction> findStoredReplay(Long userId, String idempotencyKey, String requestHash) {
+        // Rows past the TTL still count until the purge job removes them, so the
+        // unique index and this lookup never disagree.
+        return idempotencyKeyRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                .map(stored -> {
+                    put(userId, idempotencyKey, stored.getTransactionId(), stored.getRequestHash(),
+                            stored.getCreatedAt().plusMinutes(ttlMinutes));
+                    return load(stored.getTransactionId(), stored.getRequestHash(), requestHash);
+                });
+    }
+
+    /**
+     * Stores the key in the caller's transaction; the unique index rejects a
+     * concurrent duplicate. The cache is only populated once the transfer commits.
+     */
+    public void record(Long userId, String idempotencyKey, String requestHash, String transactionId) {
+        IdempotencyKey key = new IdempotencyKey();
+        key.setUserId(userId);
+        key.setIdempotencyKey(idempotencyKey);
+        key.setRequestHash(requestHash);
+        key.setTransactionId(transactionId);
+        idempotencyKeyRepository.save(key);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(userId, idempotencyKey, transactionId, requestHash,
+                            LocalDateTime.now().plusMinutes(ttlMinutes));
+                }
+            });
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        return Map.of(
+                "hits", hitCount,
+                "misses", misses.get(),
+                "evictions", evictions.get(),
+                "size", size,
+                "hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int removed = idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusMinutes(ttlMinutes));
+        if (removed > 0) {
+            log.info("Purged {} expired idempotency keys", removed);
+        }
+    }
+
+    private Transaction load(String transactionId, String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new RuntimeException("Idempotency-Key was already used for a different transfer");
+        }
+        return transactionRepository.findByTransactionId(transactionId)
+                .orElseThrow(() -> new RuntimeException("Original transaction not found"));
+    }
+
+    private void put(Long userId, String idempotencyKey, String transactionId, String requestHash,
+            LocalDateTime expiresAt) {
+        synchronized (cache) {
+            cache.put(cacheKey(userId, idempotencyKey), new CachedKey(transactionId, requestHash, expiresAt));
+        }
+    }
+
+    private String cacheKey(Long userId, String idempotencyKey) {
+        return userId + ":" + idempotencyKey;
+    }
+
+    private record CachedKey(String transactionId, String requestHash, LocalDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,271 @@
+package com.banking.service;
+
+import com.banking.model.Account;
+import com.banking.model.MonthlyCounterparty;
+import com.banking.model.MonthlyInsight;
+import com.banking.model.NumberSequence;
+import com.banking.model.Transaction;
+import com.banking.payload.AccountInsights;
+import com.banking.payload.MonthlyInsights;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.MonthlyCounterpartyRepository;
+import com.banking.repository.MonthlyInsightRepository;
+import com.banking.repository.NumberSequenceRepository;
+import com.banking.repository.TransactionRepository;
+import com.banking.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-account monthly totals and counterparties. A background job tails the
+ * {@code transactions} table by id and adds each new row to its month's
+ * aggregates, so reads cost one row per month instead of a scan of the
+ * account's history. Reads also add the few rows the job has not applied yet.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InsightsService {
+
+    // number_sequences row holding the id of the last transaction applied to the aggregates
+    private static final String WATERMARK = "insights";
+
+    private final TransactionRepository transactionRepository;
+    private final MonthlyInsightRepository monthlyInsightRepository;
+    private final MonthlyCounterpartyRepository monthlyCounterpartyRepository;
+    private final AccountRepository accountRepository;
+    private final NumberSequenceRepository numberSequenceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${insights.batch-size:5000}")
+    private int batchSize;
+
+    // Rows younger than this may sit behind an uncommitted lower id, as in the ledger fold
+    @Value("${insights.grace-seconds:60}")
+    private long graceSeconds;
+
+    @Value("${insights.max-months:24}")
+    private int maxMonths;
+
+    @Value("${insights.top-counterparties:5}")
+    private int topCounterparties;
+
+    // Unapplied rows a read will merge in; beyond this the account is reported as not up to date
+    @Value("${insights.live-tail-limit:1000}")
+    private int liveTailLimit;
+
+    @Scheduled(fixedDelayString = "${insights.refresh-interval-ms:60000}")
+    public void applyNewTransactions() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        try {
+            template.executeWithoutResult(status -> {
+                if (numberSequenceRepository.findById(WATERMARK).isEmpty()) {
+                    numberSequenceRepository.saveAndFlush(new NumberSequence(WATERMARK, 0L));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the watermark at the same time
+        }
+
+        int applied = 0;
+        Integer batch;
+        do {
+            batch = template.execute(status -> applyBatch());
+            applied += batch;
+        } while (batch == batchSize);
+
+        if (applied > 0) {
+            log.info("Applied {} transactions to monthly insights", applied);
+        }
+    }
+
+    // Id of the last transaction counted in the aggregates
+    public long appliedUpTo() {
+        return numberSequenceRepository.findById(WATERMARK).map(NumberSequence::getNextValue).orElse(0L);
+    }
+
+    @Transactional(readOnly = true)
+    public AccountInsights getInsights(UserPrincipal userPrincipal, Long accountId, Integer months) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        if (!account.getUser().getId().equals(userPrincipal.getId())) {
+            throw new RuntimeException("Unauthorized access to account insights");
+        }
+        int count = months == null ? 12 : months;
+        if (count < 1 || count > maxMonths) {
+            throw new RuntimeException("months must be between 1 and " + maxMonths);
+        }
+        LocalDate from = YearMonth.now().minusMonths(count - 1).atDay(1);
+
+        Map<MonthKey, MonthlyInsight> totals = new HashMap<>();
+        monthlyInsightRepository.findByAccountIdAndMonthStartGreaterThanEqualOrderByMonthStartDesc(accountId, from)
+                .forEach(row -> totals.put(new MonthKey(accountId, row.getMonthStart()),
+                        // Copied so merging the tail never touches managed entities
+                        new MonthlyInsight(null, accountId, row.getMonthStart(), row.getTotalIn(), row.getTotalOut(),
+                                row.getCountIn(), row.getCountOut())));
+        Map<CounterpartyKey, MonthlyCounterparty> counterparties = new HashMap<>();
+        monthlyCounterpartyRepository.findByAccountIdAndMonthStartGreaterThanEqual(accountId, from)
+                .forEach(row -> counterparties.put(new CounterpartyKey(accountId, row.getMonthStart(),
+                        row.getCounterpartyAccountNumber()),
+                        new MonthlyCounterparty(null, accountId, row.getMonthStart(),
+                                row.getCounterpartyAccountNumber(), row.getCounterpartyName(), row.getTotalAmount(),
+                                row.getTransactionCount())));
+
+        List<Transaction> tail = transactionRepository.findByAccountIdAfter(accountId, appliedUpTo(),
+                PageRequest.of(0, liveTailLimit + 1));
+        boolean upToDate = tail.size() <= liveTailLimit;
+        if (upToDate) {
+            for (Transaction transaction : tail) {
+                if (!transaction.getCreatedAt().toLocalDate().isBefore(from)) {
+                    accumulate(transaction, accountId, totals, counterparties);
+                }
+            }
+        }
+
+        Map<LocalDate, List<MonthlyCounterparty>> byMonth = new HashMap<>();
+        counterparties.values().forEach(row -> byMonth.computeIfAbsent(row.getMonthStart(), m -> new ArrayList<>())
+                .add(row));
+
+        TreeMap<LocalDate, MonthlyInsight> ordered = new TreeMap<>(Comparator.reverseOrder());
+        totals.values().forEach(row -> ordered.put(row.getMonthStart(), row));
+
+        List<MonthlyInsights> result = new ArrayList<>(ordered.size());
+        for (MonthlyInsight row : ordered.values()) {
+            List<MonthlyInsights.CounterpartyTotal> top = byMonth.getOrDefault(row.getMonthStart(), List.of())
+                    .stream()
+                    .sorted(Comparator.comparing(MonthlyCounterparty::getTotalAmount).reversed())
+                    .limit(topCounterparties)
+                    .map(c -> new MonthlyInsights.CounterpartyTotal(c.getCounterpartyAccountNumber(),
+                            c.getCounterpartyName(), c.getTotalAmount(), c.getTransactionCount()))
+                    .toList();
+            result.add(new MonthlyInsights(YearMonth.from(row.getMonthStart()).toString(), row.getTotalIn(),
+                    row.getTotalOut(), row.getCountIn(), row.getCountOut(), top));
+        }
+        return new AccountInsights(accountId, result, upToDate);
+    }
+
+    /**
+     * Applies the next batch of transactions under the watermark row lock and
+     * advances the watermark in the same transaction, so concurrent instances
+     * never apply a row twice.
+     */
+    private int applyBatch() {
+        NumberSequence watermark = numberSequenceRepository.findByNameForUpdate(WATERMARK).orElse(null);
+        if (watermark == null) {
+            return 0;
+        }
+        long afterId = watermark.getNextValue();
+        long upToId = transactionRepository.findMaxIdCreatedBefore(afterId,
+                LocalDateTime.now().minusSeconds(graceSeconds));
+        if (upToId <= afterId) {
+            return 0;
+        }
+
+        List<Transaction> rows = transactionRepository.findFeedBetween(afterId, upToId,
+                PageRequest.of(0, batchSize));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        Map<MonthKey, MonthlyInsight> totals = new HashMap<>();
+        Map<CounterpartyKey, MonthlyCounterparty> counterparties = new HashMap<>();
+        for (Transaction transaction : rows) {
+            accumulate(transaction, transaction.getAccount().getId(), totals, counterparties);
+        }
+
+        List<Object[]> totalRows = new ArrayList<>(totals.size());
+        for (MonthlyInsight row : totals.values()) {
+            totalRows.add(new Object[] { row.getAccountId(), Date.valueOf(row.getMonthStart()), row.getTotalIn(),
+                    row.getTotalOut(), row.getCountIn(), row.getCountOut() });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO account_monthly_insights (account_id, month_start, total_in, total_out, "
+                + "count_in, count_out) VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+                + "total_in = total_in + VALUES(total_in), total_out = total_out + VALUES(total_out), "
+                + "count_in = count_in + VALUES(count_in), count_out = count_out + VALUES(count_out)", totalRows);
+
+        List<Object[]> counterpartyRows = new ArrayList<>(counterparties.size());
+        for (MonthlyCounterparty row : counterparties.values()) {
+            counterpartyRows.add(new Object[] { row.getAccountId(), Date.valueOf(row.getMonthStart()),
+                    row.getCounterpartyAccountNumber(), row.getCounterpartyName(), row.getTotalAmount(),
+                    row.getTransactionCount() });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO account_monthly_counterparties (account_id, month_start, "
+                + "counterparty_account_number, counterparty_name, total_amount, transaction_count) "
+                + "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE counterparty_name = VALUES(counterparty_name), "
+                + "total_amount = total_amount + VALUES(total_amount), "
+                + "transaction_count = transaction_count + VALUES(transaction_count)", counterpartyRows);
+
+        watermark.setNextValue(rows.get(rows.size() - 1).getId());
+        return rows.size();
+    }
+
+    // Adds one transaction to the in-memory deltas; transactions are immutable once written
+    private void accumulate(Transaction transaction, Long accountId, Map<MonthKey, MonthlyInsight> totals,
+            Map<CounterpartyKey, MonthlyCounterparty> counterparties) {
+        if (transaction.getStatus() != Transaction.TransactionStatus.COMPLETED) {
+            return;
+        }
+        LocalDate month = transaction.getCreatedAt().toLocalDate().withDayOfMonth(1);
+        BigDecimal amount = transaction.getAmount();
+
+        MonthlyInsight total = totals.computeIfAbsent(new MonthKey(accountId, month), key -> {
+            MonthlyInsight row = new MonthlyInsight();
+            row.setAccountId(accountId);
+            row.setMonthStart(month);
+            return row;
+        });
+        if (StatementWriter.isDebit(transaction)) {
+            total.setTotalOut(total.getTotalOut().add(amount));
+            total.setCountOut(total.getCountOut() + 1);
+        } else {
+            total.setTotalIn(total.getTotalIn().add(amount));
+            total.setCountIn(total.getCountIn() + 1);
+        }
+
+        String counterparty = transaction.getRecipientAccountNumber();
+        if (counterparty == null || counterparty.isBlank()) {
+            return;
+        }
+        MonthlyCounterparty row = counterparties.computeIfAbsent(new CounterpartyKey(accountId, month, counterparty),
+                key -> {
+                    MonthlyCounterparty created = new MonthlyCounterparty();
+                    created.setAccountId(accountId);
+                    created.setMonthStart(month);
+                    created.setCounterpartyAccountNumber(counterparty);
+                    return created;
+                });
+        if (transaction.getRecipientName() != null) {
+            row.setCounterpartyName(transaction.getRecipientName());
+        }
+        row.setTotalAmount(row.getTotalAmount().add(amount));
+        row.setTransactionCount(row.getTransactionCount() + 1);
+    }
+
+    private record MonthKey(Long accountId, LocalDate monthStart) {
+    }
+
+    private record CounterpartyKey(Long accountId, LocalDate monthStart, String accountNumber) {
+    }
+}
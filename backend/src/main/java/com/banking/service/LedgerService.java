@@ -0,0 +1,354 @@
+package com.banking.service;
+
+import com.banking.model.Account;
+import com.banking.model.BalanceSnapshot;
+import com.banking.model.HotAccountSlot;
+import com.banking.model.LedgerEntry;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.BalanceSnapshotRepository;
+import com.banking.repository.HotAccountSlotRepository;
+import com.banking.repository.LedgerEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Double-entry ledger behind account balances. Transfers only insert entries;
+ * the balance of an account is its latest snapshot (or, before the first
+ * snapshot, the legacy {@code accounts.balance} column) plus the entries
+ * written after it. A background job periodically folds the tail into a new
+ * snapshot and refreshes the {@code accounts.balance} column.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LedgerService {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final BalanceSnapshotRepository snapshotRepository;
+    private final AccountRepository accountRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final IdGenerator idGenerator;
+    private final HotAccountSlotRepository hotAccountSlotRepository;
+    private final UserVersionService userVersionService;
+
+    // Entries younger than this may still belong to an uncommitted transaction
+    // holding a lower id, so they are never folded.
+    @Value("${ledger.snapshot.grace-seconds:60}")
+    private long graceSeconds;
+
+    private volatile Long foldedUpTo;
+
+    // Account numbers in hot-account mode and the number of credit slots each gets
+    @Value("${ledger.hot-accounts:}")
+    private String hotAccountNumbers;
+
+    @Value("${ledger.hot-account-slots:16}")
+    private int hotAccountSlots;
+
+    // Account id -> slot count, mirrored from hot_account_slots
+    private volatile Map<Long, Integer> hotAccounts = Map.of();
+
+    public String post(Account from, Account to, BigDecimal amount, String debitTransactionId,
+            String creditTransactionId) {
+        String journalId = idGenerator.nextId();
+
+        LedgerEntry credit = entry(journalId, to, LedgerEntry.Direction.CREDIT, amount, creditTransactionId);
+        Integer slot = slotFor(from, to);
+        if (slot != null && hotAccountSlotRepository.credit(to.getId(), slot, amount) == 1) {
+            credit.setSlot(slot);
+        }
+        ledgerEntryRepository.saveAll(List.of(
+                entry(journalId, from, LedgerEntry.Direction.DEBIT, amount, debitTransactionId), credit));
+        userVersionService.bumpAfterCommit(from.getUser().getId(), to.getUser().getId());
+
+        return journalId;
+    }
+
+    /**
+     * Writes many postings with two JDBC batches: both statement lines of every
+     * posting into {@code transactions}, then both legs into
+     * {@code ledger_entries}. Entity inserts with IDENTITY ids cannot be batched
+     * by Hibernate, so this bypasses the persistence context. Credits to hot
+     * accounts are summed per slot first and added in (account, slot) order, so
+     * a batch updates each slot once and cannot deadlock with another batch.
+     * Must run inside the caller's transaction with the source accounts already
+     * locked.
+     */
+    public void postAll(List<Posting> postings) {
+        if (postings.isEmpty()) {
+            return;
+        }
+
+        Map<SlotKey, BigDecimal> slotCredits = new TreeMap<>();
+        for (Posting posting : postings) {
+            Integer slot = slotFor(posting.from(), posting.to());
+            if (slot != null) {
+                slotCredits.merge(new SlotKey(posting.to().getId(), slot), posting.amount(), BigDecimal::add);
+            }
+        }
+        // A slot retired since the last refresh leaves its credits to the tail
+        Set<SlotKey> credited = new HashSet<>();
+        slotCredits.forEach((key, amount) -> {
+            if (hotAccountSlotRepository.credit(key.accountId(), key.slot(), amount) == 1) {
+                credited.add(key);
+            }
+        });
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> transactionRows = new ArrayList<>(postings.size() * 2);
+        List<Object[]> entryRows = new ArrayList<>(postings.size() * 2);
+
+        for (Posting posting : postings) {
+            Account from = posting.from();
+            Account to = posting.to();
+            String journalId = idGenerator.nextId();
+
+            transactionRows.add(new Object[] { posting.debitTransactionId(), "TRANSFER", posting.amount(),
+                    posting.fromBalanceAfter(), from.getId(), posting.description(), to.getAccountNumber(),
+                    to.getUser().getFirstName() + " " + to.getUser().getLastName(), "COMPLETED", now });
+            transactionRows.add(new Object[] { posting.creditTransactionId(), "DEPOSIT", posting.amount(),
+                    posting.toBalanceAfter(), to.getId(),
+                    "Received from " + from.getUser().getFirstName() + ": " + posting.description(),
+                    from.getAccountNumber(), from.getUser().getFirstName() + " " + from.getUser().getLastName(),
+                    "COMPLETED", now });
+
+            Integer slot = slotFor(from, to);
+            entryRows.add(new Object[] { journalId, from.getId(), "DEBIT", posting.amount(),
+                    posting.debitTransactionId(), null, now });
+            entryRows.add(new Object[] { journalId, to.getId(), "CREDIT", posting.amount(),
+                    posting.creditTransactionId(),
+                    slot != null && credited.contains(new SlotKey(to.getId(), slot)) ? slot : null, now });
+            userVersionService.bumpAfterCommit(from.getUser().getId(), to.getUser().getId());
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (transaction_id, type, amount, balance_after, account_id, "
+                + "description, recipient_account_number, recipient_name, status, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", transactionRows);
+        jdbcTemplate.batchUpdate("INSERT INTO ledger_entries (journal_id, account_id, direction, amount, "
+                + "transaction_id, slot, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", entryRows);
+    }
+
+    /**
+     * Snapshot + tail + undrained hot-account slots. The slots are read last: a
+     * drain committing in between can make an unlocked read briefly low, never
+     * high. Debits hold the account lock, which the fold of a hot account also
+     * takes, so their funds check is exact.
+     */
+    public BigDecimal balanceOf(Account account) {
+        Optional<BalanceSnapshot> snapshot = snapshotRepository.findTopByAccountIdOrderByIdDesc(account.getId());
+        BigDecimal base = snapshot.map(BalanceSnapshot::getBalance).orElse(account.getBalance());
+        long afterId = snapshot.map(BalanceSnapshot::getLastEntryId).orElse(0L);
+
+        BigDecimal balance = base.add(ledgerEntryRepository.sumBetween(account.getId(), afterId, Long.MAX_VALUE));
+        if (hotAccounts.containsKey(account.getId())) {
+            balance = balance.add(hotAccountSlotRepository.sumByAccountId(account.getId()));
+        }
+        return balance;
+    }
+
+    /**
+     * Brings hot_account_slots in line with {@code ledger.hot-accounts}: creates
+     * the slots of newly listed accounts and drains and removes the slots of
+     * accounts no longer listed. All instances should share the same list.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void syncHotAccounts() {
+        Set<Long> configured = new HashSet<>();
+        for (String accountNumber : hotAccountNumbers.split(",")) {
+            if (accountNumber.isBlank()) {
+                continue;
+            }
+            Optional<Account> account = accountRepository.findByAccountNumber(accountNumber.trim());
+            if (account.isEmpty()) {
+                log.warn("Hot account {} not found", accountNumber.trim());
+                continue;
+            }
+            configured.add(account.get().getId());
+            try {
+                createSlots(account.get().getId());
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created them at the same time
+            }
+        }
+
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        for (Long accountId : hotAccountSlotRepository.findHotAccountIds()) {
+            if (!configured.contains(accountId)) {
+                template.executeWithoutResult(status -> retireSlots(accountId));
+                log.info("Account {} left hot-account mode", accountId);
+            }
+        }
+        refreshHotAccounts();
+    }
+
+    @Scheduled(fixedDelayString = "${ledger.snapshot.interval-ms:300000}", initialDelayString = "${ledger.snapshot.interval-ms:300000}")
+    public void snapshotBalances() {
+        refreshHotAccounts();
+        if (foldedUpTo == null) {
+            foldedUpTo = snapshotRepository.findHighestFoldedEntryId();
+        }
+
+        long upToId = ledgerEntryRepository.findMaxIdCreatedBefore(LocalDateTime.now().minusSeconds(graceSeconds));
+        if (upToId <= foldedUpTo) {
+            return;
+        }
+
+        List<Long> accountIds = ledgerEntryRepository.findAccountIdsWithEntriesBetween(foldedUpTo, upToId);
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        int failed = 0;
+        for (Long accountId : accountIds) {
+            try {
+                template.executeWithoutResult(status -> fold(accountId, upToId));
+            } catch (Exception e) {
+                failed++;
+                log.warn("Could not snapshot balance for account {}: {}", accountId, e.getMessage());
+            }
+        }
+
+        // Accounts that failed keep their older snapshot and a longer tail, which
+        // is still correct; they are picked up again once they receive new entries.
+        foldedUpTo = upToId;
+        log.info("Ledger snapshot folded {} accounts up to entry {} ({} failed)", accountIds.size(), upToId, failed);
+    }
+
+    private void fold(Long accountId, long upToId) {
+        // A hot account is locked so that a debit sees its slot credits either in
+        // the slots or in the new snapshot, never in both or neither.
+        boolean hot = hotAccounts.containsKey(accountId);
+        Account account = (hot ? accountRepository.findByIdForUpdate(accountId)
+                : accountRepository.findById(accountId)).orElse(null);
+        if (account == null) {
+            return;
+        }
+
+        Optional<BalanceSnapshot> last = snapshotRepository.findTopByAccountIdOrderByIdDesc(accountId);
+        long afterId = last.map(BalanceSnapshot::getLastEntryId).orElse(0L);
+        if (afterId >= upToId) {
+            return;
+        }
+
+        BigDecimal base = last.map(BalanceSnapshot::getBalance).orElse(account.getBalance());
+        BigDecimal balance = base.add(ledgerEntryRepository.sumBetween(accountId, afterId, upToId));
+        if (hot) {
+            balance = balance.add(drainSlots(accountId, false));
+        }
+
+        BalanceSnapshot snapshot = new BalanceSnapshot();
+        snapshot.setAccount(account);
+        snapshot.setBalance(balance);
+        snapshot.setLastEntryId(upToId);
+        snapshotRepository.save(snapshot);
+
+        accountRepository.updateBalance(accountId, balance);
+    }
+
+    // Null when the destination is not in hot-account mode, so the credit is counted from the tail
+    private Integer slotFor(Account from, Account to) {
+        Integer slots = hotAccounts.get(to.getId());
+        if (slots == null || from.getId().equals(to.getId())) {
+            return null;
+        }
+        // Payers hash to a fixed slot; a payer's own transfers are already serialized by its lock
+        return Math.floorMod(Long.hashCode(from.getId() * 0x9E3779B97F4A7C15L), slots);
+    }
+
+    private void createSlots(Long accountId) {
+        Set<Integer> existing = new HashSet<>();
+        hotAccountSlotRepository.findByAccountId(accountId).forEach(slot -> existing.add(slot.getSlot()));
+        List<HotAccountSlot> missing = new ArrayList<>();
+        for (int i = 0; i < hotAccountSlots; i++) {
+            if (!existing.contains(i)) {
+                HotAccountSlot slot = new HotAccountSlot();
+                slot.setAccountId(accountId);
+                slot.setSlot(i);
+                missing.add(slot);
+            }
+        }
+        hotAccountSlotRepository.saveAll(missing);
+    }
+
+    // Moves the undrained slot credits into a snapshot with the same tail position, then drops the slots
+    private void retireSlots(Long accountId) {
+        Account account = accountRepository.findByIdForUpdate(accountId).orElse(null);
+        if (account == null) {
+            hotAccountSlotRepository.deleteByAccountId(accountId);
+            return;
+        }
+        Optional<BalanceSnapshot> last = snapshotRepository.findTopByAccountIdOrderByIdDesc(accountId);
+
+        BalanceSnapshot snapshot = new BalanceSnapshot();
+        snapshot.setAccount(account);
+        snapshot.setBalance(last.map(BalanceSnapshot::getBalance).orElse(account.getBalance())
+                .add(drainSlots(accountId, true)));
+        snapshot.setLastEntryId(last.map(BalanceSnapshot::getLastEntryId).orElse(0L));
+        snapshotRepository.save(snapshot);
+    }
+
+    // Caller must hold the account row lock
+    private BigDecimal drainSlots(Long accountId, boolean remove) {
+        List<HotAccountSlot> slots = hotAccountSlotRepository.findByAccountIdForUpdate(accountId);
+        BigDecimal drained = BigDecimal.ZERO;
+        for (HotAccountSlot slot : slots) {
+            drained = drained.add(slot.getAmount());
+            slot.setAmount(BigDecimal.ZERO);
+        }
+        if (remove) {
+            hotAccountSlotRepository.deleteAll(slots);
+        }
+        return drained;
+    }
+
+    private void refreshHotAccounts() {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Long accountId : hotAccountSlotRepository.findHotAccountIds()) {
+            counts.put(accountId, hotAccountSlotRepository.findByAccountId(accountId).size());
+        }
+        hotAccounts = Map.copyOf(counts);
+    }
+
+    private LedgerEntry entry(String journalId, Account account, LedgerEntry.Direction direction, BigDecimal amount,
+            String transactionId) {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setJournalId(journalId);
+        entry.setAccount(account);
+        entry.setDirection(direction);
+        entry.setAmount(amount);
+        entry.setTransactionId(transactionId);
+        return entry;
+    }
+
+    private record SlotKey(long accountId, int slot) implements Comparable<SlotKey> {
+        @Override
+        public int compareTo(SlotKey other) {
+            int byAccount = Long.compare(accountId, other.accountId);
+            return byAccount != 0 ? byAccount : Integer.compare(slot, other.slot);
+        }
+    }
+
+    public record Posting(Account from, Account to, BigDecimal amount, String description,
+            String debitTransactionId, String creditTransactionId,
+            BigDecimal fromBalanceAfter, BigDecimal toBalanceAfter) {
+    }
+}
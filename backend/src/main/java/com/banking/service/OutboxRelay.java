@@ -0,0 +1,171 @@
+package com.banking.service;
+
+import com.banking.model.OutboxEvent;
+import com.banking.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Polls pending outbox events in batches and delivers them to WebSocket,
+ * email and the audit log. A batch is leased in a short SKIP LOCKED
+ * transaction, so multiple backend instances can relay concurrently, and is
+ * delivered after that transaction commits. An event is marked DONE only once
+ * its delivery returned; one whose relay died mid-batch is picked up again
+ * when the lease runs out, so delivery is at least once. Emails are relayed
+ * in a lane of their own, so a slow mail server never holds back WebSocket
+ * notices or the audit log.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private static final Logger AUDIT = LoggerFactory.getLogger("com.banking.audit");
+
+    private static final List<OutboxEvent.EventType> NOTIFICATIONS = List.of(OutboxEvent.EventType.WEBSOCKET,
+            OutboxEvent.EventType.AUDIT);
+    private static final List<OutboxEvent.EventType> EMAILS = List.of(OutboxEvent.EventType.DEBIT_EMAIL,
+            OutboxEvent.EventType.CREDIT_EMAIL);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final EmailService emailService;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    // Kept small so the lease of a batch stays short while the mail server is slow
+    @Value("${outbox.relay.email-batch-size:10}")
+    private int emailBatchSize;
+
+    @Value("${outbox.relay.max-attempts:5}")
+    private int maxAttempts;
+
+    // A batch is leased for this much per event, which must outlast a single delivery
+    @Value("${outbox.relay.lease-per-event-ms:1000}")
+    private long leasePerEventMs;
+
+    // Longer than the SMTP connect, read and write timeouts together
+    @Value("${outbox.relay.email-lease-per-event-ms:30000}")
+    private long emailLeasePerEventMs;
+
+    // Multiplied by the attempt count before a failed event is retried
+    @Value("${outbox.relay.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    @Value("${outbox.retention-hours:24}")
+    private long retentionHours;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void relayNotifications() {
+        relay(NOTIFICATIONS, batchSize, leasePerEventMs);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void relayEmails() {
+        relay(EMAILS, emailBatchSize, emailLeasePerEventMs);
+    }
+
+    private void relay(List<OutboxEvent.EventType> types, int size, long perEventMs) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        int claimed;
+        do {
+            LocalDateTime leasedUntil = LocalDateTime.now().plus(Duration.ofMillis(perEventMs * size));
+            List<OutboxEvent> batch = template.execute(status -> claimBatch(types, size, leasedUntil));
+            for (int i = 0; i < batch.size(); i++) {
+                // Without time left for one more delivery, the rest is left to whoever claims it after the lease
+                if (LocalDateTime.now().plus(Duration.ofMillis(perEventMs)).isAfter(leasedUntil)) {
+                    log.warn("Outbox lease ran short; leaving {} {} events for the next claim", batch.size() - i, types);
+                    return;
+                }
+                OutboxEvent event = batch.get(i);
+                deliver(event);
+                template.executeWithoutResult(status -> outboxEventRepository.save(event));
+            }
+            claimed = batch.size();
+        } while (claimed == size);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.purge-interval-ms:3600000}")
+    public void purgeProcessed() {
+        int removed = outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (removed > 0) {
+            log.info("Purged {} delivered outbox events", removed);
+        }
+    }
+
+    // Row locks are released when this commits; the lease keeps other relays off the batch
+    private List<OutboxEvent> claimBatch(List<OutboxEvent.EventType> types, int size, LocalDateTime leasedUntil) {
+        List<OutboxEvent> batch = outboxEventRepository.claimPending(types, LocalDateTime.now(),
+                PageRequest.of(0, size));
+        batch.forEach(event -> event.setLockedUntil(leasedUntil));
+        return batch;
+    }
+
+    private void deliver(OutboxEvent event) {
+        try {
+            dispatch(event);
+            event.setStatus(OutboxEvent.EventStatus.DONE);
+            event.setProcessedAt(LocalDateTime.now());
+            event.setLockedUntil(null);
+        } catch (Exception e) {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setLastError(e.getMessage() != null && e.getMessage().length() > 255
+                    ? e.getMessage().substring(0, 255)
+                    : e.getMessage());
+            if (event.getAttempts() >= maxAttempts) {
+                event.setStatus(OutboxEvent.EventStatus.FAILED);
+                event.setLockedUntil(null);
+                log.error("Outbox event {} ({}) failed permanently: {}", event.getId(), event.getType(),
+                        e.getMessage());
+            } else {
+                event.setLockedUntil(LocalDateTime.now().plus(Duration.ofMillis(retryDelayMs * event.getAttempts())));
+            }
+        }
+    }
+
+    private void dispatch(OutboxEvent event) throws Exception {
+        switch (event.getType()) {
+            case WEBSOCKET -> {
+                Map<String, Object> payload = objectMapper.readValue(event.getPayload(),
+                        new TypeReference<Map<String, Object>>() {
+                        });
+                messagingTemplate.convertAndSend((String) payload.get("destination"), payload.get("body"));
+            }
+            case DEBIT_EMAIL -> {
+                List<String> args = readArgs(event);
+                emailService.deliverDebitNotification(args.get(0), args.get(1), args.get(2), args.get(3), args.get(4),
+                        args.get(5), args.get(6), args.get(7));
+            }
+            case CREDIT_EMAIL -> {
+                List<String> args = readArgs(event);
+                emailService.deliverCreditNotification(args.get(0), args.get(1), args.get(2), args.get(3), args.get(4),
+                        args.get(5), args.get(6), args.get(7));
+            }
+            case AUDIT -> AUDIT.info(event.getPayload());
+        }
+    }
+
+    private List<String> readArgs(OutboxEvent event) throws Exception {
+        return objectMapper.readValue(event.getPayload(), new TypeReference<List<String>>() {
+        });
+    }
+}
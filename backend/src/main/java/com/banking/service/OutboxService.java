@@ -0,0 +1,52 @@
+package com.banking.service;
+
+import com.banking.model.OutboxEvent;
+import com.banking.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records side effects in the caller's transaction so they are only delivered
+ * if that transaction commits, and survive a restart until they are.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishWebSocket(String destination, Map<String, Object> body) {
+        save(OutboxEvent.EventType.WEBSOCKET, destination, Map.of("destination", destination, "body", body));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishEmail(OutboxEvent.EventType type, String to, List<String> args) {
+        save(type, to, args);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAudit(Map<String, Object> details) {
+        save(OutboxEvent.EventType.AUDIT, null, details);
+    }
+
+    private void save(OutboxEvent.EventType type, String destination, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setDestination(destination);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize outbox event", e);
+        }
+        outboxEventRepository.save(event);
+    }
+}
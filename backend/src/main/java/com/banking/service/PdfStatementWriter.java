@@ -0,0 +1,168 @@
+package com.banking.service;
+
+import com.banking.model.Account;
+import com.banking.model.Transaction;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal PDF 1.4 writer for statements: A4 pages of Courier text, each page
+ * written out as soon as it is full. Only the byte offsets of the objects
+ * written so far are kept for the cross-reference table, so memory grows by a
+ * few bytes per page rather than with the document. The page tree (object 2)
+ * is written last, once the number of pages is known.
+ */
+class PdfStatementWriter implements StatementWriter {
+
+    private static final int LINES_PER_PAGE = 64;
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final OutputStream out;
+    private long position;
+
+    // Offset of object n is at index n - 1
+    private final List<Long> offsets = new ArrayList<>();
+    private final List<Integer> pageObjects = new ArrayList<>();
+
+    private final StringBuilder page = new StringBuilder();
+    private int linesOnPage;
+    private String[] pageHeader;
+
+    PdfStatementWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void header(Account account, LocalDate from, LocalDate to) throws IOException {
+        write("%PDF-1.4\n%âãÏÓ\n");
+        writeObject(1, "<< /Type /Catalog /Pages 2 0 R >>");
+        offsets.add(null); // object 2, the page tree, comes at the end
+        writeObject(3, "<< /Type /Font /Subtype /Type1 /BaseFont /Courier /Encoding /WinAnsiEncoding >>");
+
+        pageHeader = new String[] {
+                "Account Statement - " + account.getAccountNumber() + " (" + account.getAccountType() + ")",
+                "Period: " + from + " to " + to,
+                "",
+                String.format("%-16s %-20s %-24s %13s %13s %13s", "Date", "Transaction ID", "Description", "Debit",
+                        "Credit", "Balance"),
+                "-".repeat(104)
+        };
+        out.flush();
+    }
+
+    @Override
+    public void row(Transaction transaction) throws IOException {
+        boolean debit = StatementWriter.isDebit(transaction);
+        String amount = transaction.getAmount().toPlainString();
+        line(String.format("%-16s %-20s %-24s %13s %13s %13s",
+                transaction.getCreatedAt().format(DATE_TIME),
+                truncate(transaction.getTransactionId(), 20),
+                truncate(transaction.getDescription(), 24),
+                debit ? amount : "",
+                debit ? "" : amount,
+                transaction.getBalanceAfter() != null ? transaction.getBalanceAfter().toPlainString() : ""));
+    }
+
+    @Override
+    public void finish(long count, BigDecimal totalDebits, BigDecimal totalCredits) throws IOException {
+        line("-".repeat(104));
+        line(String.format("%-62s %13s %13s", count + " transactions", totalDebits.toPlainString(),
+                totalCredits.toPlainString()));
+        flushPage();
+
+        offsets.set(1, position);
+        StringBuilder kids = new StringBuilder();
+        for (Integer pageObject : pageObjects) {
+            kids.append(pageObject).append(" 0 R ");
+        }
+        write("2 0 obj\n<< /Type /Pages /Kids [" + kids + "] /Count " + pageObjects.size() + " >>\nendobj\n");
+
+        long xref = position;
+        StringBuilder table = new StringBuilder();
+        table.append("xref\n0 ").append(offsets.size() + 1).append("\n0000000000 65535 f \n");
+        for (Long offset : offsets) {
+            table.append(String.format("%010d 00000 n \n", offset));
+        }
+        write(table.toString());
+        write("trailer\n<< /Size " + (offsets.size() + 1) + " /Root 1 0 R >>\nstartxref\n" + xref + "\n%%EOF\n");
+        out.flush();
+    }
+
+    private void line(String text) throws IOException {
+        if (linesOnPage == 0) {
+            page.append("BT\n/F1 8 Tf\n10 TL\n36 806 Td\n");
+            for (String header : pageHeader) {
+                appendText(header);
+            }
+        }
+        appendText(text);
+        if (++linesOnPage == LINES_PER_PAGE) {
+            flushPage();
+        }
+    }
+
+    private void appendText(String text) {
+        page.append('(');
+        for (char c : text.toCharArray()) {
+            if (c == '(' || c == ')' || c == '\\') {
+                page.append('\\');
+            }
+            page.append(c < 256 ? c : '?');
+        }
+        page.append(") Tj T*\n");
+    }
+
+    private void flushPage() throws IOException {
+        if (linesOnPage == 0) {
+            return;
+        }
+        page.append("ET\n");
+        byte[] content = page.toString().getBytes(StandardCharsets.ISO_8859_1);
+        page.setLength(0);
+        linesOnPage = 0;
+
+        int contentObject = offsets.size() + 1;
+        offsets.add(position);
+        write(contentObject + " 0 obj\n<< /Length " + content.length + " >>\nstream\n");
+        write(content);
+        write("\nendstream\nendobj\n");
+
+        int pageObject = contentObject + 1;
+        writeObject(pageObject, "<< /Type /Page /Parent 2 0 R /MediaBox [0 0 595 842] "
+                + "/Resources << /Font << /F1 3 0 R >> >> /Contents " + contentObject + " 0 R >>");
+        pageObjects.add(pageObject);
+        out.flush();
+    }
+
+    private void writeObject(int number, String body) throws IOException {
+        if (offsets.size() < number) {
+            offsets.add(position);
+        } else {
+            offsets.set(number - 1, position);
+        }
+        write(number + " 0 obj\n" + body + "\nendobj\n");
+    }
+
+    private void write(String text) throws IOException {
+        write(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        out.write(bytes);
+        position += bytes.length;
+    }
+
+    private static String truncate(String value, int width) {
+        if (value == null) {
+            return "";
+        }
+        return value.length() <= width ? value : value.substring(0, width - 1) + "~";
+    }
+}
@@ -0,0 +1,146 @@
+package com.banking.service;
+
+import com.banking.model.PrincipalRevocation;
+import com.banking.repository.PrincipalRevocationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Tracks which users' access tokens carry stale claims, so the stateless
+ * authentication mode can trust the claims of every other token without a
+ * database lookup. Revocations are written to {@code principal_revocations}
+ * and every instance polls that table into memory; a revocation made on
+ * another instance takes effect within one poll interval. Each access token
+ * carries the id of its user's latest revocation when it was issued; tokens
+ * older than a later revocation are authenticated from the database instead.
+ * Listeners, such as the principal cache, hear of every revocation, local or
+ * polled.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PrincipalRevocationService {
+
+    private final PrincipalRevocationRepository principalRevocationRepository;
+
+    @Value("${auth.stateless.enabled:false}")
+    private boolean enabled;
+
+    // Revocations older than the longest-lived access token no longer matter
+    @Value("${jwt.expiration}")
+    private long tokenLifetimeMs;
+
+    // Revocation times come from each revoking instance's clock, so the horizon is widened by this much
+    @Value("${auth.stateless.clock-skew-ms:5000}")
+    private long clockSkewMs;
+
+    // Re-reads rows written shortly before the last poll, whose transactions may have committed after it
+    @Value("${auth.stateless.poll-overlap-ms:60000}")
+    private long pollOverlapMs;
+
+    // Claims are only trusted while the last successful poll is at most this old
+    @Value("${auth.stateless.max-staleness-ms:30000}")
+    private long maxStalenessMs;
+
+    // User id -> latest revocation
+    private final Map<Long, Latest> revocations = new ConcurrentHashMap<>();
+    private final List<Consumer<Long>> listeners = new CopyOnWriteArrayList<>();
+    private volatile long polledAt;
+
+    public void addListener(Consumer<Long> listener) {
+        listeners.add(listener);
+    }
+
+    public void revoke(Long userId) {
+        long now = System.currentTimeMillis();
+        PrincipalRevocation saved = principalRevocationRepository.save(new PrincipalRevocation(null, userId, now));
+        revocations.merge(userId, new Latest(saved.getId(), now), Latest::newer);
+        notifyListeners(userId);
+        // Again once the change is visible, so nothing reloaded in between outlives it
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    notifyListeners(userId);
+                }
+            });
+        }
+    }
+
+    // False until the first poll has loaded the revocations of every live token, or when polling has stalled
+    public boolean isReady() {
+        return enabled && polledAt != 0 && System.currentTimeMillis() - polledAt <= maxStalenessMs;
+    }
+
+    // Ids are compared rather than times, so neither clock skew nor second-resolution issued-at matters
+    public boolean isRevoked(Long userId, Long tokenVersion) {
+        Latest latest = revocations.get(userId);
+        return latest != null && (tokenVersion == null || tokenVersion < latest.id());
+    }
+
+    // Stamped into new access tokens; 0 for a user never revoked, null while stateless mode is off
+    public Long tokenVersion(Long userId) {
+        return enabled ? principalRevocationRepository.findLatestIdByUserId(userId) : null;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.stateless.poll-interval-ms:5000}")
+    public void poll() {
+        if (!enabled && listeners.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long horizon = start - tokenLifetimeMs - clockSkewMs;
+        long since = polledAt == 0 ? horizon : Math.max(horizon, polledAt - pollOverlapMs);
+        try {
+            for (PrincipalRevocation row : principalRevocationRepository.findByRevokedAtGreaterThanEqual(since)) {
+                Latest known = revocations.get(row.getUserId());
+                if (known == null || known.id() < row.getId()) {
+                    revocations.merge(row.getUserId(), new Latest(row.getId(), row.getRevokedAt()), Latest::newer);
+                    notifyListeners(row.getUserId());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not poll principal revocations: {}", e.getMessage());
+            return;
+        }
+        revocations.values().removeIf(latest -> latest.at() < horizon);
+        polledAt = start;
+    }
+
+    @Scheduled(cron = "${auth.stateless.purge-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        principalRevocationRepository.deleteRevokedBefore(
+                System.currentTimeMillis() - tokenLifetimeMs - clockSkewMs - pollOverlapMs);
+    }
+
+    private void notifyListeners(Long userId) {
+        for (Consumer<Long> listener : listeners) {
+            listener.accept(userId);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "enabled", enabled,
+                "ready", isReady(),
+                "revokedUsers", revocations.size());
+    }
+
+    private record Latest(long id, long at) {
+
+        static Latest newer(Latest a, Latest b) {
+            return a.id() >= b.id() ? a : b;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.banking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-your-writes for replica routing: a user who committed a write within
+ * the lag window has their read-only work sent to the primary, so a transfer
+ * is never followed by a balance or history read that predates it. Tracked
+ * per instance; a client served by another instance may briefly read from a
+ * lagging replica. Work without a signed-in user, such as OTP checks, logins
+ * and scheduled jobs, cannot be tracked and always reads the primary.
+ */
+@Component
+public class ReplicaLagGuard {
+
+    @Value("${datasource.replica.lag-guard-ms:2000}")
+    private long lagGuardMs;
+
+    // User id -> time of the user's last committed write
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong primaryReads = new AtomicLong();
+    private final AtomicLong anonymousReads = new AtomicLong();
+
+    public void recordWrite(Long userId) {
+        if (userId != null) {
+            lastWrites.put(userId, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Decides where a read-only transaction goes; only users without a recent
+     * write go to the replica.
+     */
+    public boolean mustReadPrimary(Long userId) {
+        if (userId == null) {
+            anonymousReads.incrementAndGet();
+            return true;
+        }
+        Long writtenAt = lastWrites.get(userId);
+        if (writtenAt != null && System.currentTimeMillis() - writtenAt <= lagGuardMs) {
+            primaryReads.incrementAndGet();
+            return true;
+        }
+        replicaReads.incrementAndGet();
+        return false;
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "replicaReads", replicaReads.get(),
+                "guardedPrimaryReads", primaryReads.get(),
+                "anonymousPrimaryReads", anonymousReads.get(),
+                "trackedUsers", lastWrites.size());
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - lagGuardMs;
+        lastWrites.values().removeIf(writtenAt -> writtenAt < cutoff);
+    }
+}
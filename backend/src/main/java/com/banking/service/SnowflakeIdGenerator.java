@@ -0,0 +1,92 @@
+package com.banking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 64-bit time-ordered ids: 41 bits of milliseconds since {@link #EPOCH}, 10
+ * bits of node id and a 12-bit per-millisecond sequence. Each id is rendered
+ * as 13 Crockford base32 characters, fixed width so that string order matches
+ * numeric order and new rows append to the right edge of the unique index.
+ * Every instance needs its own {@code ids.node-id}: two instances sharing one
+ * issue the same ids in the same millisecond.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "ids.generator", havingValue = "snowflake", matchIfMissing = true)
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    // 2024-01-01T00:00:00Z; 41 bits of milliseconds last until 2093
+    static final long EPOCH = 1704067200000L;
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_CLOCK_DRIFT_MS = 10;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+
+    private final long nodeId;
+
+    private long lastTimestamp = -1L;
+    private long sequence;
+
+    public SnowflakeIdGenerator(@Value("${ids.node-id:-1}") long configuredNodeId) {
+        if (configuredNodeId < 0 || configuredNodeId > MAX_NODE) {
+            throw new IllegalStateException("ids.node-id must be set to a value between 0 and " + MAX_NODE
+                    + ", distinct for every instance, while ids.generator=snowflake");
+        }
+        this.nodeId = configuredNodeId;
+        log.info("Snowflake id generator using node id {}", nodeId);
+    }
+
+    @Override
+    public String nextId() {
+        return encode(nextLong());
+    }
+
+    synchronized long nextLong() {
+        long now = System.currentTimeMillis();
+        if (now < lastTimestamp) {
+            // Small NTP step back: keep issuing from the last timestamp rather than repeat ids
+            if (lastTimestamp - now > MAX_CLOCK_DRIFT_MS) {
+                throw new IllegalStateException("Clock moved backwards by " + (lastTimestamp - now) + " ms");
+            }
+            now = lastTimestamp;
+        }
+
+        if (now == lastTimestamp) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                now = waitForNextMillis(lastTimestamp);
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = now;
+
+        return ((now - EPOCH) << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    static String encode(long id) {
+        char[] out = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            out[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(out);
+    }
+
+    private long waitForNextMillis(long last) {
+        long now = System.currentTimeMillis();
+        while (now <= last) {
+            Thread.onSpinWait();
+            now = System.currentTimeMillis();
+        }
+        return now;
+    }
+}
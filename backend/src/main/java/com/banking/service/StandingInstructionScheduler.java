@@ -0,0 +1,275 @@
+package com.banking.service;
+
+import com.banking.model.StandingInstruction;
+import com.banking.model.Transaction;
+import com.banking.payload.TransferRequest;
+import com.banking.repository.StandingInstructionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executes due standing instructions. Each poll claims a batch with SKIP
+ * LOCKED and leases the rows by pushing {@code notBefore} forward, so other
+ * instances skip them while a bounded worker pool runs the transfers. Every
+ * occurrence carries its own idempotency key: if an instance dies after the
+ * transfer but before recording it, the occurrence is retried once the lease
+ * expires and replays the original transaction instead of paying twice.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StandingInstructionScheduler {
+
+    private final StandingInstructionRepository standingInstructionRepository;
+    private final AccountService accountService;
+    private final OutboxService outboxService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${standing.workers:4}")
+    private int workers;
+
+    @Value("${standing.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${standing.batch-size:50}")
+    private int batchSize;
+
+    @Value("${standing.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${standing.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${standing.retry-delay-minutes:30}")
+    private long retryDelayMinutes;
+
+    private ThreadPoolExecutor executor;
+
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong lagMillisTotal = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+
+    // Completions in the current and the previous wall-clock minute
+    private long currentMinute;
+    private long currentMinuteCount;
+    private long previousMinuteCount;
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Queued occurrences keep their lease and are picked up again after it expires
+        executor.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${standing.poll-interval-ms:5000}")
+    public void poll() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        while (true) {
+            // Only claim what the pool can accept, so a month-start spike backs up in
+            // the table (where other instances can take it) rather than in our queue.
+            int capacity = Math.min(batchSize, executor.getQueue().remainingCapacity());
+            if (capacity == 0) {
+                return;
+            }
+
+            List<Claim> batch = template.execute(status -> claimBatch(capacity));
+            if (batch == null || batch.isEmpty()) {
+                return;
+            }
+            claimed.addAndGet(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Claim claim = batch.get(i);
+                try {
+                    executor.execute(() -> run(claim));
+                } catch (RejectedExecutionException e) {
+                    // Shutting down, or the queue filled up; hand the rest back instead of holding their lease
+                    release(template, batch.subList(i, batch.size()));
+                    return;
+                }
+            }
+
+            if (batch.size() < capacity) {
+                return;
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long done = executed.get() + failed.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("claimed", claimed.get());
+        stats.put("executed", executed.get());
+        stats.put("failed", failed.get());
+        stats.put("activeWorkers", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("completedLastMinute", completedLastMinute());
+        stats.put("lastLagMillis", lastLagMillis.get());
+        stats.put("maxLagMillis", maxLagMillis.get());
+        stats.put("avgLagMillis", done == 0 ? 0 : lagMillisTotal.get() / done);
+        return stats;
+    }
+
+    private List<Claim> claimBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StandingInstruction> due = standingInstructionRepository.claimDue(now, PageRequest.of(0, limit));
+        List<Claim> claims = new ArrayList<>(due.size());
+        for (StandingInstruction instruction : due) {
+            instruction.setNotBefore(now.plusSeconds(leaseSeconds));
+            claims.add(new Claim(instruction.getId(), instruction.getOccurrence(), instruction.getNextRunAt(),
+                    instruction.getUserId(), instruction.getFromAccountNumber(), instruction.getToAccountNumber(),
+                    instruction.getAmount(), instruction.getDescription()));
+        }
+        return claims;
+    }
+
+    private void run(Claim claim) {
+        long lag = Math.max(0, Duration.between(claim.dueAt(), LocalDateTime.now()).toMillis());
+
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber(claim.fromAccountNumber());
+        request.setToAccountNumber(claim.toAccountNumber());
+        request.setAmount(claim.amount());
+        request.setDescription(claim.description() != null ? claim.description() : "Standing instruction");
+
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        try {
+            Transaction transaction = accountService.transferPreAuthorized(claim.userId(), request,
+                    "SI-" + claim.id() + "-" + claim.occurrence());
+            template.executeWithoutResult(status -> complete(claim, transaction.getTransactionId()));
+            executed.incrementAndGet();
+        } catch (RuntimeException e) {
+            log.warn("Standing instruction {} occurrence {} failed: {}", claim.id(), claim.occurrence(),
+                    e.getMessage());
+            try {
+                template.executeWithoutResult(status -> fail(claim, e.getMessage()));
+            } catch (RuntimeException recordFailure) {
+                log.error("Could not record failure of standing instruction {}", claim.id(), recordFailure);
+            }
+            failed.incrementAndGet();
+        }
+        recordLag(lag);
+    }
+
+    private void release(TransactionTemplate template, List<Claim> claims) {
+        log.warn("Worker pool refused {} standing instructions; releasing their leases", claims.size());
+        claimed.addAndGet(-claims.size());
+        try {
+            template.executeWithoutResult(status -> claims.forEach(claim -> {
+                StandingInstruction instruction = current(claim);
+                if (instruction != null) {
+                    instruction.setNotBefore(null);
+                }
+            }));
+        } catch (RuntimeException e) {
+            log.error("Could not release standing instruction leases; they expire in {} s", leaseSeconds, e);
+        }
+    }
+
+    private void complete(Claim claim, String transactionId) {
+        StandingInstruction instruction = current(claim);
+        if (instruction == null) {
+            return;
+        }
+        instruction.setLastTransactionId(transactionId);
+        instruction.setLastRunAt(LocalDateTime.now());
+        instruction.setLastError(null);
+        advance(instruction);
+    }
+
+    private void fail(Claim claim, String message) {
+        StandingInstruction instruction = current(claim);
+        if (instruction == null) {
+            return;
+        }
+        instruction.setAttempts(instruction.getAttempts() + 1);
+        instruction.setLastError(message != null && message.length() > 255 ? message.substring(0, 255) : message);
+        if (instruction.getAttempts() < maxAttempts) {
+            instruction.setNotBefore(LocalDateTime.now().plusMinutes(retryDelayMinutes));
+            return;
+        }
+
+        // Give up on this occurrence and move on to the next one
+        Map<String, Object> notice = new HashMap<>();
+        notice.put("type", "STANDING_INSTRUCTION_FAILED");
+        notice.put("message", String.format("Scheduled transfer of ₹%,.2f to %s could not be made: %s",
+                claim.amount(), claim.toAccountNumber(), message));
+        notice.put("standingInstructionId", claim.id());
+        outboxService.publishWebSocket("/topic/user/" + claim.userId(), notice);
+        advance(instruction);
+    }
+
+    // Null if the occurrence was already recorded, e.g. by an instance that picked it up after our lease expired
+    private StandingInstruction current(Claim claim) {
+        return standingInstructionRepository.findById(claim.id())
+                .filter(instruction -> instruction.getOccurrence().equals(claim.occurrence()))
+                .orElse(null);
+    }
+
+    private void advance(StandingInstruction instruction) {
+        int next = instruction.getOccurrence() + 1;
+        LocalDateTime nextRunAt = instruction.occurrenceAt(next);
+        instruction.setOccurrence(next);
+        instruction.setNextRunAt(nextRunAt);
+        instruction.setNotBefore(null);
+        instruction.setAttempts(0);
+        if (instruction.getEndDate() != null && nextRunAt.toLocalDate().isAfter(instruction.getEndDate())
+                && instruction.getStatus() == StandingInstruction.Status.ACTIVE) {
+            instruction.setStatus(StandingInstruction.Status.COMPLETED);
+        }
+    }
+
+    private synchronized void recordLag(long lag) {
+        lastLagMillis.set(lag);
+        lagMillisTotal.addAndGet(lag);
+        maxLagMillis.accumulateAndGet(lag, Math::max);
+
+        long minute = System.currentTimeMillis() / 60_000;
+        if (minute != currentMinute) {
+            previousMinuteCount = minute == currentMinute + 1 ? currentMinuteCount : 0;
+            currentMinute = minute;
+            currentMinuteCount = 0;
+        }
+        currentMinuteCount++;
+    }
+
+    private synchronized long completedLastMinute() {
+        long minute = System.currentTimeMillis() / 60_000;
+        if (minute == currentMinute) {
+            return previousMinuteCount;
+        }
+        return minute == currentMinute + 1 ? currentMinuteCount : 0;
+    }
+
+    private record Claim(Long id, Integer occurrence, LocalDateTime dueAt, Long userId, String fromAccountNumber,
+            String toAccountNumber, BigDecimal amount, String description) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.banking.service;
+
+import com.banking.model.Account;
+import com.banking.model.StandingInstruction;
+import com.banking.payload.StandingInstructionRequest;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.StandingInstructionRepository;
+import com.banking.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class StandingInstructionService {
+
+    private final StandingInstructionRepository standingInstructionRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionSigningService transactionSigningService;
+
+    /**
+     * Creates a recurring transfer. The TPIN is verified once here; every
+     * occurrence then runs as a pre-authorized transfer.
+     */
+    @Transactional
+    public StandingInstruction create(UserPrincipal userPrincipal, StandingInstructionRequest request) {
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            throw new RuntimeException("Transfer amount must be greater than zero");
+        }
+        if (request.getFrequency() == null) {
+            throw new RuntimeException("Frequency is required");
+        }
+        if (request.getFromAccountNumber() == null
+                || request.getFromAccountNumber().equals(request.getToAccountNumber())) {
+            throw new RuntimeException("Source and destination accounts must differ");
+        }
+
+        Account from = accountRepository.findByAccountNumber(request.getFromAccountNumber())
+                .orElseThrow(() -> new RuntimeException("Source account not found"));
+        if (!from.getUser().getId().equals(userPrincipal.getId())) {
+            throw new RuntimeException("Unauthorized transfer attempt");
+        }
+        if (!accountRepository.existsByAccountNumber(request.getToAccountNumber())) {
+            throw new RuntimeException("Destination account not found");
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDateTime startAt = request.getStartDate() == null || !request.getStartDate().isAfter(today)
+                ? LocalDateTime.now()
+                : request.getStartDate().atStartOfDay();
+        if (request.getEndDate() != null && request.getEndDate().isBefore(startAt.toLocalDate())) {
+            throw new RuntimeException("End date must not be before the start date");
+        }
+
+        transactionSigningService.verifyTpin(userPrincipal, request.getTpin());
+
+        StandingInstruction instruction = new StandingInstruction();
+        instruction.setUserId(userPrincipal.getId());
+        instruction.setFromAccountNumber(request.getFromAccountNumber());
+        instruction.setToAccountNumber(request.getToAccountNumber());
+        instruction.setAmount(request.getAmount());
+        instruction.setDescription(request.getDescription());
+        instruction.setFrequency(request.getFrequency());
+        instruction.setStartAt(startAt);
+        instruction.setEndDate(request.getEndDate());
+        instruction.setNextRunAt(startAt);
+        return standingInstructionRepository.save(instruction);
+    }
+
+    public List<StandingInstruction> list(UserPrincipal userPrincipal) {
+        return standingInstructionRepository.findByUserIdOrderByIdDesc(userPrincipal.getId());
+    }
+
+    @Transactional
+    public StandingInstruction cancel(UserPrincipal userPrincipal, Long id) {
+        StandingInstruction instruction = standingInstructionRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Standing instruction not found"));
+        if (!instruction.getUserId().equals(userPrincipal.getId())) {
+            throw new RuntimeException("Unauthorized access to standing instruction");
+        }
+        // An occurrence already claimed by a worker still completes
+        instruction.setStatus(StandingInstruction.Status.CANCELLED);
+        return standingInstructionRepository.save(instruction);
+    }
+}
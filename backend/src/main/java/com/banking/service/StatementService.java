@@ -0,0 +1,157 @@
+package com.banking.service;
+
+import com.banking.model.Account;
+import com.banking.model.Transaction;
+import com.banking.model.TransactionSegment;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.TransactionRepository;
+import com.banking.security.UserPrincipal;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Streams account statements straight from a forward-only result set to the
+ * response, reading months already archived from their segment files. Each
+ * row is written and detached from the persistence context before the next
+ * is read, so memory stays flat regardless of the number of rows and the
+ * client starts receiving data while the query is still running.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatementService {
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveService transactionArchiveService;
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${statements.max-range-days:366}")
+    private long maxRangeDays;
+
+    public enum Format {
+        CSV, PDF
+    }
+
+    /**
+     * Validates the request up front so errors still produce a normal 400
+     * response; the returned body runs on the async request thread.
+     */
+    public StreamingResponseBody export(UserPrincipal userPrincipal, Long accountId, LocalDate from, LocalDate to,
+            Format format) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        if (!account.getUser().getId().equals(userPrincipal.getId())) {
+            throw new RuntimeException("Unauthorized access to account statement");
+        }
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new RuntimeException("A valid date range is required");
+        }
+        if (from.plusDays(maxRangeDays).isBefore(to)) {
+            throw new RuntimeException("Statement period cannot exceed " + maxRangeDays + " days");
+        }
+
+        return outputStream -> {
+            StatementWriter writer = format == Format.PDF ? new PdfStatementWriter(outputStream)
+                    : new CsvStatementWriter(outputStream);
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            try {
+                template.executeWithoutResult(status -> write(writer, account, from, to));
+            } catch (UncheckedIOException e) {
+                // Usually the client going away mid-download
+                log.debug("Statement export for account {} aborted: {}", accountId, e.getMessage());
+                throw e.getCause();
+            }
+        };
+    }
+
+    /**
+     * Walks the period month by month: archived months are read from their
+     * segment, and each run of consecutive hot months is one streamed query.
+     */
+    private void write(StatementWriter writer, Account account, LocalDate from, LocalDate to) {
+        Totals totals = new Totals();
+        Map<LocalDate, TransactionSegment> archived = transactionArchiveService
+                .readableSegments(from.withDayOfMonth(1), to.withDayOfMonth(1));
+
+        try {
+            writer.header(account, from, to);
+            LocalDate hotFrom = from;
+            for (LocalDate month = from.withDayOfMonth(1); !month.isAfter(to); month = month.plusMonths(1)) {
+                TransactionSegment segment = archived.get(month);
+                if (segment == null) {
+                    continue;
+                }
+                if (hotFrom.isBefore(month)) {
+                    writeHot(writer, totals, account, hotFrom, month.minusDays(1));
+                }
+                LocalDateTime start = (month.isBefore(from) ? from : month).atStartOfDay();
+                LocalDateTime end = to.plusDays(1).atStartOfDay();
+                transactionArchiveService.forEachArchived(segment, account.getId(), transaction -> {
+                    if (!transaction.getCreatedAt().isBefore(start) && transaction.getCreatedAt().isBefore(end)) {
+                        emit(writer, totals, transaction);
+                    }
+                });
+                hotFrom = month.plusMonths(1);
+            }
+            if (!hotFrom.isAfter(to)) {
+                writeHot(writer, totals, account, hotFrom, to);
+            }
+            writer.finish(totals.count, totals.debits, totals.credits);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeHot(StatementWriter writer, Totals totals, Account account, LocalDate from, LocalDate to) {
+        try (Stream<Transaction> rows = transactionRepository.streamByAccountIdAndCreatedAtBetween(account.getId(),
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay().minusNanos(1))) {
+            Iterator<Transaction> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Transaction transaction = iterator.next();
+                emit(writer, totals, transaction);
+                entityManager.detach(transaction);
+            }
+        }
+    }
+
+    private void emit(StatementWriter writer, Totals totals, Transaction transaction) {
+        try {
+            writer.row(transaction);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        totals.count++;
+        if (StatementWriter.isDebit(transaction)) {
+            totals.debits = totals.debits.add(transaction.getAmount());
+        } else {
+            totals.credits = totals.credits.add(transaction.getAmount());
+        }
+    }
+
+    private static class Totals {
+        private long count;
+        private BigDecimal debits = BigDecimal.ZERO;
+        private BigDecimal credits = BigDecimal.ZERO;
+    }
+}
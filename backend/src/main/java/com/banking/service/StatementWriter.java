@@ -0,0 +1,27 @@
+package com.banking.service;
+
+import com.banking.model.Account;
+import com.banking.model.Transaction;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Writes one statement row at a time to the response stream; implementations
+ * hold at most one page of output in memory.
+ */
+interface StatementWriter {
+
+    void header(Account account, LocalDate from, LocalDate to) throws IOException;
+
+    void row(Transaction transaction) throws IOException;
+
+    void finish(long count, BigDecimal totalDebits, BigDecimal totalCredits) throws IOException;
+
+    static boolean isDebit(Transaction transaction) {
+        return transaction.getType() == Transaction.TransactionType.TRANSFER
+                || transaction.getType() == Transaction.TransactionType.WITHDRAWAL
+                || transaction.getType() == Transaction.TransactionType.PAYMENT;
+    }
+}
@@ -0,0 +1,232 @@
+package com.banking.service;
+
+import com.banking.model.Account;
+import com.banking.model.Card;
+import com.banking.model.SyncChange;
+import com.banking.model.Transaction;
+import com.banking.model.UserDevice;
+import com.banking.payload.SyncResponse;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.CardRepository;
+import com.banking.repository.SyncChangeRepository;
+import com.banking.repository.TransactionRepository;
+import com.banking.repository.UserDeviceRepository;
+import com.banking.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Delta sync for the mobile app. Account, card and device writes append to
+ * the {@code sync_changes} log in their own transaction and are replayed from
+ * it by id; transactions are read past the cursor through
+ * {@code (account_id, id)}, and every account with new transactions is sent
+ * again because its balance moved. When nothing changed, a sync costs the
+ * account list and two empty index range reads. Clients without a usable
+ * cursor get a full snapshot instead.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    private static final String CURSOR_PREFIX = "s1:";
+    private static final int MIN_SNAPSHOT_CHUNK = 8;
+
+    private final SyncChangeRepository syncChangeRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final CardRepository cardRepository;
+    private final UserDeviceRepository userDeviceRepository;
+    private final LedgerService ledgerService;
+    private final UserVersionService userVersionService;
+
+    @Value("${sync.page-size:500}")
+    private int pageSize;
+
+    // Latest transactions sent with a full snapshot; older ones come from the paged history
+    @Value("${sync.snapshot-transactions:100}")
+    private int snapshotTransactions;
+
+    // Rows younger than this may sit behind an uncommitted lower id, so they are sent again on the next sync
+    @Value("${sync.grace-seconds:60}")
+    private long graceSeconds;
+
+    // Lifetime of a cursor; the change log is kept a day longer
+    @Value("${sync.retention-days:30}")
+    private long retentionDays;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(Long userId, SyncChange.EntityType type, Long entityId, boolean deleted) {
+        syncChangeRepository.save(new SyncChange(null, userId, type, entityId, deleted, null));
+        userVersionService.bumpAfterCommit(userId);
+    }
+
+    // Read-only so the ledger balances set on the accounts are never flushed back
+    @Transactional(readOnly = true)
+    public SyncResponse sync(UserPrincipal userPrincipal, String cursor) {
+        Long userId = userPrincipal.getId();
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(graceSeconds);
+        List<Account> accounts = accountRepository.findByUserId(userId);
+        List<Long> accountIds = accounts.stream().map(Account::getId).toList();
+
+        Cursor position = decodeCursor(cursor);
+        if (position == null
+                || position.issuedAt() < Instant.now().minusSeconds(retentionDays * 86400).getEpochSecond()) {
+            return snapshot(userId, accounts, accountIds, cutoff);
+        }
+
+        List<SyncChange> changes = syncChangeRepository.findByUserIdAfter(userId, position.changeId(),
+                PageRequest.of(0, pageSize));
+        List<Transaction> transactions = accountIds.isEmpty() ? List.of()
+                : transactionRepository.findByAccountIdInAfter(accountIds, position.transactionId(),
+                        PageRequest.of(0, pageSize));
+
+        // Only the last change to an entity matters
+        Map<SyncChange.EntityType, Map<Long, Boolean>> latest = new EnumMap<>(SyncChange.EntityType.class);
+        for (SyncChange change : changes) {
+            latest.computeIfAbsent(change.getEntityType(), type -> new LinkedHashMap<>())
+                    .put(change.getEntityId(), change.isDeleted());
+        }
+        List<SyncResponse.Tombstone> deleted = new ArrayList<>();
+
+        Set<Long> accountUpserts = upserts(latest, SyncChange.EntityType.ACCOUNT, deleted);
+        transactions.forEach(transaction -> accountUpserts.add(transaction.getAccount().getId()));
+        List<Account> changedAccounts = new ArrayList<>();
+        for (Account account : accounts) {
+            if (accountUpserts.remove(account.getId())) {
+                account.setBalance(ledgerService.balanceOf(account));
+                changedAccounts.add(account);
+            }
+        }
+
+        Set<Long> cardUpserts = upserts(latest, SyncChange.EntityType.CARD, deleted);
+        List<Card> cards = cardUpserts.isEmpty() ? List.of() : cardRepository.findAllById(cardUpserts);
+        cards.forEach(card -> cardUpserts.remove(card.getId()));
+
+        Set<Long> deviceUpserts = upserts(latest, SyncChange.EntityType.DEVICE, deleted);
+        List<UserDevice> devices = deviceUpserts.isEmpty() ? List.of() : userDeviceRepository.findAllById(deviceUpserts);
+        devices.forEach(device -> deviceUpserts.remove(device.getId()));
+
+        // Upserted after the cursor but removed before this read, with the deletion past this page
+        accountUpserts.forEach(id -> deleted.add(tombstone(SyncChange.EntityType.ACCOUNT, id)));
+        cardUpserts.forEach(id -> deleted.add(tombstone(SyncChange.EntityType.CARD, id)));
+        deviceUpserts.forEach(id -> deleted.add(tombstone(SyncChange.EntityType.DEVICE, id)));
+
+        long changeId = settledUpTo(position.changeId(), changes, SyncChange::getId, SyncChange::getCreatedAt,
+                cutoff);
+        long transactionId = settledUpTo(position.transactionId(), transactions, Transaction::getId,
+                Transaction::getCreatedAt, cutoff);
+        // A full page whose rows are all settled means more are waiting; an unsettled row is the live tail
+        boolean hasMore = (changes.size() == pageSize && changeId == changes.get(changes.size() - 1).getId())
+                || (transactions.size() == pageSize
+                        && transactionId == transactions.get(transactions.size() - 1).getId());
+
+        return new SyncResponse(false, changedAccounts, transactions, cards, devices, deleted,
+                encodeCursor(changeId, transactionId), hasMore);
+    }
+
+    @Scheduled(cron = "${sync.purge-cron:0 30 2 * * *}")
+    public void purgeExpired() {
+        int removed = syncChangeRepository.deleteCreatedBefore(LocalDateTime.now().minusDays(retentionDays + 1));
+        if (removed > 0) {
+            log.info("Purged {} sync changes past retention", removed);
+        }
+    }
+
+    private SyncResponse snapshot(Long userId, List<Account> accounts, List<Long> accountIds,
+            LocalDateTime cutoff) {
+        // Positions are taken first, so anything written while the snapshot is read is sent again next time
+        long changeId = syncChangeRepository.findMaxIdCreatedBefore(userId, cutoff);
+        long transactionId = accountIds.isEmpty() ? 0
+                : transactionRepository.findMaxIdByAccountIdInCreatedBefore(accountIds, cutoff);
+
+        accounts.forEach(account -> account.setBalance(ledgerService.balanceOf(account)));
+        List<Card> cards = accountIds.isEmpty() ? List.of() : cardRepository.findByAccountIdIn(accountIds);
+        List<UserDevice> devices = userDeviceRepository.findByUserIdCustom(userId);
+        List<Transaction> transactions = List.of();
+        if (!accountIds.isEmpty()) {
+            int chunk = Math.max(MIN_SNAPSHOT_CHUNK, snapshotTransactions / accountIds.size() + 1);
+            transactions = new TransactionTimeline(transactionRepository, accountIds, Long.MAX_VALUE, chunk)
+                    .take(snapshotTransactions);
+        }
+        return new SyncResponse(true, accounts, transactions, cards, devices, List.of(),
+                encodeCursor(changeId, transactionId), false);
+    }
+
+    // Ids changed since the cursor and still present; deletions go straight to the tombstones
+    private Set<Long> upserts(Map<SyncChange.EntityType, Map<Long, Boolean>> latest, SyncChange.EntityType type,
+            List<SyncResponse.Tombstone> deleted) {
+        Set<Long> ids = new LinkedHashSet<>();
+        latest.getOrDefault(type, Map.of()).forEach((id, isDeleted) -> {
+            if (isDeleted) {
+                deleted.add(tombstone(type, id));
+            } else {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    private SyncResponse.Tombstone tombstone(SyncChange.EntityType type, Long id) {
+        return new SyncResponse.Tombstone(type.name(), id);
+    }
+
+    // Advances only past rows old enough that no lower id can still commit
+    private static <T> long settledUpTo(long from, List<T> rows, Function<T, Long> id,
+            Function<T, LocalDateTime> createdAt, LocalDateTime cutoff) {
+        long upTo = from;
+        for (T row : rows) {
+            if (!createdAt.apply(row).isBefore(cutoff)) {
+                break;
+            }
+            upTo = id.apply(row);
+        }
+        return upTo;
+    }
+
+    private String encodeCursor(long changeId, long transactionId) {
+        String value = CURSOR_PREFIX + changeId + ":" + transactionId + ":" + Instant.now().getEpochSecond();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Cursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException();
+            }
+            String[] parts = decoded.substring(CURSOR_PREFIX.length()).split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException();
+            }
+            return new Cursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    private record Cursor(long changeId, long transactionId, long issuedAt) {
+    }
+}
@@ -0,0 +1,281 @@
+package com.banking.service;
+
+import com.banking.model.Transaction;
+import com.banking.model.TransactionSegment;
+import com.banking.model.TransactionSegmentBlock;
+import com.banking.repository.TransactionRepository;
+import com.banking.repository.TransactionSegmentBlockRepository;
+import com.banking.repository.TransactionSegmentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the {@code transactions} table to a rolling window of recent months.
+ * Closed months older than the retention window are written to immutable,
+ * gzip-compressed segment files indexed by account in
+ * {@code transaction_segment_blocks}, then deleted from the hot table in
+ * small chunks. Statement exports and transaction search read archived months
+ * from the segments; the segment directory must be shared by all instances.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionArchiveService {
+
+    private static final EnumSet<TransactionSegment.Status> READABLE = EnumSet.of(TransactionSegment.Status.READY,
+            TransactionSegment.Status.PURGED);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionSegmentRepository segmentRepository;
+    private final TransactionSegmentBlockRepository blockRepository;
+    private final InsightsService insightsService;
+    private final UserVersionService userVersionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${archive.dir:data/transaction-segments}")
+    private String directory;
+
+    // Months kept in the hot table, not counting the current one
+    @Value("${archive.retain-months:12}")
+    private int retainMonths;
+
+    @Value("${archive.max-months-per-run:3}")
+    private int maxMonthsPerRun;
+
+    @Value("${archive.block-rows:5000}")
+    private int blockRows;
+
+    @Value("${archive.delete-chunk:5000}")
+    private int deleteChunk;
+
+    // A WRITING claim older than this belongs to an instance that died mid-write
+    @Value("${archive.stale-claim-minutes:120}")
+    private long staleClaimMinutes;
+
+    // Readable segments never change, so their file names are cached by id
+    private final Map<Long, String> segmentFiles = new ConcurrentHashMap<>();
+
+    @Scheduled(cron = "${archive.cron:0 0 3 * * *}")
+    public void archiveClosedMonths() {
+        if (!enabled) {
+            return;
+        }
+        releaseStaleClaims();
+        purgeArchivedRows();
+
+        LocalDate cutoff = YearMonth.now().minusMonths(retainMonths).atDay(1);
+        for (int i = 0; i < maxMonthsPerRun; i++) {
+            LocalDateTime oldest = transactionRepository.findOldestCreatedAt();
+            if (oldest == null) {
+                return;
+            }
+            LocalDate month = oldest.toLocalDate().withDayOfMonth(1);
+            if (!month.isBefore(cutoff) || !archiveMonth(month)) {
+                return;
+            }
+            purgeArchivedRows();
+        }
+    }
+
+    // Archived months between the two month starts, keyed by month start
+    public Map<LocalDate, TransactionSegment> readableSegments(LocalDate fromMonth, LocalDate toMonth) {
+        Map<LocalDate, TransactionSegment> segments = new HashMap<>();
+        segmentRepository.findByMonthStartBetweenAndStatusIn(fromMonth, toMonth, READABLE)
+                .forEach(segment -> segments.put(segment.getMonthStart(), segment));
+        return segments;
+    }
+
+    public void forEachArchived(TransactionSegment segment, Long accountId, Consumer<Transaction> action) {
+        for (TransactionSegmentBlock block : blockRepository.findByAccountIdAndSegmentIdOrderById(accountId,
+                segment.getId())) {
+            readBlock(block).forEach(action);
+        }
+    }
+
+    public List<TransactionSegmentBlock> readableBlocks(Collection<Long> accountIds) {
+        return blockRepository.findReadableByAccountIdIn(accountIds);
+    }
+
+    public List<Transaction> readBlock(TransactionSegmentBlock block) {
+        String fileName = segmentFiles.computeIfAbsent(block.getSegmentId(), id -> segmentRepository.findById(id)
+                .map(TransactionSegment::getFileName)
+                .orElseThrow(() -> new RuntimeException("Transaction segment " + id + " not found")));
+        try {
+            return TransactionSegmentFile.readBlock(Paths.get(directory, fileName), block);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Changes whenever a month becomes readable from a segment; caches of hot rows compare it
+    public long generation() {
+        return segmentRepository.countByStatusIn(READABLE);
+    }
+
+    private boolean archiveMonth(LocalDate month) {
+        LocalDateTime start = month.atStartOfDay();
+        LocalDateTime end = month.plusMonths(1).atStartOfDay();
+
+        // The insights aggregates are fed from the hot table and must have seen every row first
+        long maxId = transactionRepository.findMaxIdCreatedBetween(start, end);
+        if (insightsService.appliedUpTo() < maxId) {
+            log.info("Deferring archival of {} until monthly insights have caught up", YearMonth.from(month));
+            return false;
+        }
+
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        TransactionSegment segment = new TransactionSegment();
+        segment.setMonthStart(month);
+        segment.setFileName("transactions-" + YearMonth.from(month) + ".seg");
+        segment.setClaimedAt(LocalDateTime.now());
+        TransactionSegment claimed;
+        try {
+            claimed = template.execute(status -> segmentRepository.saveAndFlush(segment));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance is archiving this month
+            return false;
+        }
+
+        Path dir = Paths.get(directory);
+        Path target = dir.resolve(claimed.getFileName());
+        Path temp = dir.resolve(claimed.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(dir);
+            // Read-write on purpose: the month is deleted from the primary, so it must be read from the primary too
+            SegmentResult result = template.execute(status -> writeSegment(temp, start, end));
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            target.toFile().setReadOnly();
+
+            template.executeWithoutResult(status -> {
+                long hotRows = transactionRepository.countCreatedBetween(start, end);
+                if (hotRows != result.rows()) {
+                    throw new RuntimeException("segment holds " + result.rows() + " rows but the month has " + hotRows);
+                }
+                result.blocks().forEach(block -> block.setSegmentId(claimed.getId()));
+                blockRepository.saveAll(result.blocks());
+                claimed.setRowCount(result.rows());
+                claimed.setSizeBytes(result.size());
+                claimed.setStatus(TransactionSegment.Status.READY);
+                segmentRepository.save(claimed);
+            });
+            log.info("Archived {} transactions from {} into {} ({} bytes)", result.rows(), YearMonth.from(month),
+                    target.getFileName(), result.size());
+            return true;
+        } catch (Exception e) {
+            log.warn("Archiving {} failed: {}", YearMonth.from(month), e.getMessage());
+            release(claimed);
+            return false;
+        }
+    }
+
+    private SegmentResult writeSegment(Path temp, LocalDateTime start, LocalDateTime end) {
+        try (TransactionSegmentFile.Writer writer = new TransactionSegmentFile.Writer(temp, blockRows);
+                Stream<Transaction> rows = transactionRepository.streamCreatedBetween(start, end)) {
+            Iterator<Transaction> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Transaction transaction = iterator.next();
+                writer.add(transaction, transaction.getAccount().getId());
+                entityManager.detach(transaction);
+            }
+            List<TransactionSegmentBlock> blocks = writer.finish();
+            return new SegmentResult(blocks, writer.rows(), writer.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Deletes the hot rows of READY months in short transactions so inserts are never blocked for long
+    private void purgeArchivedRows() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        for (TransactionSegment segment : segmentRepository.findByStatus(TransactionSegment.Status.READY)) {
+            LocalDateTime monthStart = segment.getMonthStart().atStartOfDay();
+            LocalDateTime monthEnd = segment.getMonthStart().plusMonths(1).atStartOfDay();
+            // Fewer hot rows is an earlier purge cut short; more means rows the segment never saw
+            Long hotRows = template.execute(status -> transactionRepository.countCreatedBetween(monthStart, monthEnd));
+            if (hotRows > segment.getRowCount()) {
+                log.error("Not purging {}: the hot table has {} rows but its segment only {}",
+                        YearMonth.from(segment.getMonthStart()), hotRows, segment.getRowCount());
+                continue;
+            }
+
+            Timestamp start = Timestamp.valueOf(monthStart);
+            Timestamp end = Timestamp.valueOf(monthEnd);
+            long deleted = 0;
+            int removed;
+            do {
+                removed = jdbcTemplate.update(
+                        "DELETE FROM transactions WHERE created_at >= ? AND created_at < ? LIMIT ?", start, end,
+                        deleteChunk);
+                deleted += removed;
+            } while (removed == deleteChunk);
+
+            segment.setStatus(TransactionSegment.Status.PURGED);
+            segmentRepository.save(segment);
+            // Archived rows leave every user's transaction lists
+            userVersionService.bumpShared();
+            log.info("Removed {} archived transactions of {} from the hot table", deleted,
+                    YearMonth.from(segment.getMonthStart()));
+        }
+    }
+
+    private void releaseStaleClaims() {
+        for (TransactionSegment segment : segmentRepository.findByStatusAndClaimedAtBefore(
+                TransactionSegment.Status.WRITING, LocalDateTime.now().minusMinutes(staleClaimMinutes))) {
+            log.warn("Releasing stale archival claim for {}", YearMonth.from(segment.getMonthStart()));
+            release(segment);
+        }
+    }
+
+    // Drops the claim along with whatever part of its file was written
+    private void release(TransactionSegment segment) {
+        for (String name : new String[] { segment.getFileName() + ".tmp", segment.getFileName() }) {
+            Path path = Paths.get(directory, name);
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Could not delete {}: {}", path, e.getMessage());
+            }
+        }
+        blockRepository.deleteBySegmentId(segment.getId());
+        segmentRepository.deleteById(segment.getId());
+    }
+
+    private record SegmentResult(List<TransactionSegmentBlock> blocks, long rows, long size) {
+    }
+}
@@ -0,0 +1,267 @@
+package com.banking.service;
+
+import com.banking.model.Transaction;
+import com.banking.model.TransactionSegmentBlock;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.TransactionRepository;
+import com.banking.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user inverted index over transaction descriptions, counterparty names
+ * and counterparty account numbers, held in memory for recently active users.
+ * A user's index is built from their accounts' history on first search and
+ * then extended with the rows written since, read through the
+ * {@code (account_id, id)} index, so every instance sees writes from every
+ * other instance without a shared cache. Archived months are indexed from
+ * their segment blocks, and an index is rebuilt whenever another month is
+ * archived.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionSearchService {
+
+    private static final int LOAD_BATCH = 5000;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionArchiveService transactionArchiveService;
+
+    @Value("${search.max-users:5000}")
+    private int maxUsers;
+
+    @Value("${search.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${search.max-limit:200}")
+    private int maxLimit;
+
+    // Rows younger than this may sit behind an uncommitted lower id, so they are re-read on the next search
+    @Value("${search.grace-seconds:60}")
+    private long graceSeconds;
+
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong builds = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final Map<Long, UserIndex> indexes = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, UserIndex> eldest) {
+            if (size() > maxUsers) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Every word of the query must prefix-match a word of the transaction;
+     * the amount bounds are inclusive. Results are newest first.
+     */
+    public List<Transaction> search(UserPrincipal userPrincipal, String query, BigDecimal minAmount,
+            BigDecimal maxAmount, Integer limit) {
+        List<String> terms = query == null ? List.of() : tokenize(query);
+        if (terms.isEmpty() && minAmount == null && maxAmount == null) {
+            throw new RuntimeException("A search term or amount range is required");
+        }
+        if (minAmount != null && maxAmount != null && minAmount.compareTo(maxAmount) > 0) {
+            throw new RuntimeException("minAmount cannot be greater than maxAmount");
+        }
+        int size = limit == null ? defaultLimit : limit;
+        if (size < 1 || size > maxLimit) {
+            throw new RuntimeException("limit must be between 1 and " + maxLimit);
+        }
+        searches.incrementAndGet();
+
+        Set<Long> accountIds = new HashSet<>();
+        accountRepository.findByUserId(userPrincipal.getId()).forEach(account -> accountIds.add(account.getId()));
+        if (accountIds.isEmpty()) {
+            return List.of();
+        }
+
+        long generation = transactionArchiveService.generation();
+        UserIndex index;
+        synchronized (indexes) {
+            index = indexes.get(userPrincipal.getId());
+            if (index == null || index.generation != generation) {
+                index = new UserIndex(generation);
+                indexes.put(userPrincipal.getId(), index);
+            }
+        }
+
+        List<Long> ids;
+        Map<Long, List<Long>> archivedIds = new HashMap<>();
+        Map<Long, TransactionSegmentBlock> blocks = new HashMap<>();
+        synchronized (index) {
+            if (!index.built) {
+                build(index, accountIds);
+            }
+            catchUp(index, accountIds);
+            ids = index.match(terms, minAmount, maxAmount, accountIds, size);
+            for (Long id : ids) {
+                Long blockId = index.docs.get(id).blockId();
+                if (blockId != null) {
+                    archivedIds.computeIfAbsent(blockId, b -> new ArrayList<>()).add(id);
+                    blocks.put(blockId, index.blocks.get(blockId));
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Rows deleted since they were indexed simply drop out here
+        Map<Long, Transaction> loaded = new HashMap<>();
+        transactionRepository.findAllById(ids).forEach(t -> loaded.put(t.getId(), t));
+        archivedIds.forEach((blockId, wanted) -> transactionArchiveService.readBlock(blocks.get(blockId)).stream()
+                .filter(t -> wanted.contains(t.getId()) && !loaded.containsKey(t.getId()))
+                .forEach(t -> loaded.put(t.getId(), t)));
+        List<Transaction> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Transaction transaction = loaded.get(id);
+            if (transaction != null) {
+                results.add(transaction);
+            }
+        }
+        return results;
+    }
+
+    public Map<String, Object> stats() {
+        int size;
+        synchronized (indexes) {
+            size = indexes.size();
+        }
+        return Map.of(
+                "searches", searches.get(),
+                "builds", builds.get(),
+                "evictions", evictions.get(),
+                "users", size);
+    }
+
+    // Archived rows first, so a row that is still in the hot table while its month is purged keeps its block
+    private void build(UserIndex index, Set<Long> accountIds) {
+        builds.incrementAndGet();
+        for (TransactionSegmentBlock block : transactionArchiveService.readableBlocks(accountIds)) {
+            index.blocks.put(block.getId(), block);
+            for (Transaction transaction : transactionArchiveService.readBlock(block)) {
+                index.add(transaction, block.getAccountId(), block.getId());
+            }
+        }
+        index.built = true;
+    }
+
+    // Reads every row of the user's accounts past the index position
+    private void catchUp(UserIndex index, Set<Long> accountIds) {
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(graceSeconds);
+        long afterId = index.safeUpTo;
+        boolean settled = true;
+        List<Transaction> batch;
+        do {
+            batch = transactionRepository.findByAccountIdInAfter(accountIds, afterId, PageRequest.of(0, LOAD_BATCH));
+            for (Transaction transaction : batch) {
+                index.add(transaction, transaction.getAccount().getId(), null);
+                // Only advance past rows old enough that no lower id can still commit
+                if (settled && transaction.getCreatedAt().isBefore(cutoff)) {
+                    index.safeUpTo = transaction.getId();
+                } else {
+                    settled = false;
+                }
+                afterId = transaction.getId();
+            }
+        } while (batch.size() == LOAD_BATCH);
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static class UserIndex {
+
+        // Term -> ids of the transactions containing it; sorted so a prefix is a contiguous range
+        private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+        private final Map<Long, Doc> docs = new HashMap<>();
+        private final Map<Long, TransactionSegmentBlock> blocks = new HashMap<>();
+        private final long generation;
+        private boolean built;
+        private long safeUpTo;
+
+        UserIndex(long generation) {
+            this.generation = generation;
+        }
+
+        void add(Transaction transaction, Long accountId, Long blockId) {
+            if (docs.containsKey(transaction.getId())) {
+                return;
+            }
+            docs.put(transaction.getId(), new Doc(accountId, transaction.getAmount(), blockId));
+
+            Set<String> terms = new HashSet<>();
+            for (String field : new String[] { transaction.getDescription(), transaction.getRecipientName(),
+                    transaction.getRecipientAccountNumber() }) {
+                if (field != null) {
+                    terms.addAll(tokenize(field));
+                }
+            }
+            for (String term : terms) {
+                postings.computeIfAbsent(term, t -> new HashSet<>()).add(transaction.getId());
+            }
+        }
+
+        List<Long> match(List<String> terms, BigDecimal minAmount, BigDecimal maxAmount, Set<Long> accountIds,
+                int limit) {
+            Set<Long> candidates = null;
+            for (String term : terms) {
+                Set<Long> matches = new HashSet<>();
+                postings.subMap(term, true, term + Character.MAX_VALUE, true).values().forEach(matches::addAll);
+                if (candidates == null) {
+                    candidates = matches;
+                } else {
+                    candidates.retainAll(matches);
+                }
+                if (candidates.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return (candidates != null ? candidates : docs.keySet()).stream()
+                    .filter(id -> {
+                        Doc doc = docs.get(id);
+                        return accountIds.contains(doc.accountId())
+                                && (minAmount == null || doc.amount().compareTo(minAmount) >= 0)
+                                && (maxAmount == null || doc.amount().compareTo(maxAmount) <= 0);
+                    })
+                    .sorted(Comparator.reverseOrder())
+                    .limit(limit)
+                    .toList();
+        }
+    }
+
+    // blockId is set for rows read from an archived segment
+    private record Doc(Long accountId, BigDecimal amount, Long blockId) {
+    }
+}
@@ -0,0 +1,172 @@
+package com.banking.service;
+
+import com.banking.model.Transaction;
+import com.banking.model.TransactionSegmentBlock;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk format of an archived month: a short magic header followed by gzip
+ * members, each holding up to a fixed number of one account's rows in id
+ * order. Members are independent, so a block is read by decompressing just
+ * its byte range.
+ */
+final class TransactionSegmentFile {
+
+    private static final byte[] MAGIC = { 'T', 'X', 'S', 'E', 'G', '1', '\n' };
+
+    private TransactionSegmentFile() {
+    }
+
+    static List<Transaction> readBlock(Path file, TransactionSegmentBlock block) throws IOException {
+        byte[] bytes = new byte[block.getLengthBytes()];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, block.getFileOffset() + buffer.position()) < 0) {
+                    throw new EOFException("Segment " + file.getFileName() + " is truncated");
+                }
+            }
+        }
+
+        List<Transaction> rows = new ArrayList<>(block.getRowCount());
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(bytes)))) {
+            for (int i = 0; i < block.getRowCount(); i++) {
+                rows.add(decode(in));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Appends rows to a new segment file. Rows must arrive grouped by account
+     * and in id order within an account.
+     */
+    static final class Writer implements Closeable {
+
+        private final FileOutputStream file;
+        private final BufferedOutputStream out;
+        private final int maxBlockRows;
+        private final List<TransactionSegmentBlock> blocks = new ArrayList<>();
+        private long offset;
+        private long rows;
+
+        private ByteArrayOutputStream blockBytes;
+        private DataOutputStream blockOut;
+        private Long blockAccountId;
+        private int blockRows;
+
+        Writer(Path path, int maxBlockRows) throws IOException {
+            this.file = new FileOutputStream(path.toFile());
+            this.out = new BufferedOutputStream(file, 1 << 16);
+            this.maxBlockRows = maxBlockRows;
+            out.write(MAGIC);
+            offset = MAGIC.length;
+        }
+
+        void add(Transaction transaction, Long accountId) throws IOException {
+            if (blockOut != null && (!accountId.equals(blockAccountId) || blockRows >= maxBlockRows)) {
+                endBlock();
+            }
+            if (blockOut == null) {
+                blockBytes = new ByteArrayOutputStream();
+                blockOut = new DataOutputStream(new GZIPOutputStream(blockBytes));
+                blockAccountId = accountId;
+                blockRows = 0;
+            }
+            encode(transaction, blockOut);
+            blockRows++;
+            rows++;
+        }
+
+        // Flushes the last block and forces the file to disk; the blocks have no segment id yet
+        List<TransactionSegmentBlock> finish() throws IOException {
+            if (blockOut != null) {
+                endBlock();
+            }
+            out.flush();
+            file.getFD().sync();
+            return blocks;
+        }
+
+        long rows() {
+            return rows;
+        }
+
+        long size() {
+            return offset;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        private void endBlock() throws IOException {
+            blockOut.close();
+            byte[] bytes = blockBytes.toByteArray();
+            out.write(bytes);
+            blocks.add(new TransactionSegmentBlock(null, null, blockAccountId, offset, bytes.length, blockRows));
+            offset += bytes.length;
+            blockOut = null;
+        }
+    }
+
+    private static void encode(Transaction transaction, DataOutputStream out) throws IOException {
+        out.writeLong(transaction.getId());
+        out.writeUTF(transaction.getTransactionId());
+        out.writeUTF(transaction.getType().name());
+        out.writeUTF(transaction.getAmount().toPlainString());
+        writeNullable(out, transaction.getBalanceAfter() != null ? transaction.getBalanceAfter().toPlainString() : null);
+        writeNullable(out, transaction.getDescription());
+        writeNullable(out, transaction.getRecipientAccountNumber());
+        writeNullable(out, transaction.getRecipientName());
+        out.writeUTF(transaction.getStatus().name());
+        out.writeUTF(transaction.getCreatedAt().toString());
+    }
+
+    private static Transaction decode(DataInputStream in) throws IOException {
+        Transaction transaction = new Transaction();
+        transaction.setId(in.readLong());
+        transaction.setTransactionId(in.readUTF());
+        transaction.setType(Transaction.TransactionType.valueOf(in.readUTF()));
+        transaction.setAmount(new BigDecimal(in.readUTF()));
+        String balanceAfter = readNullable(in);
+        transaction.setBalanceAfter(balanceAfter != null ? new BigDecimal(balanceAfter) : null);
+        transaction.setDescription(readNullable(in));
+        transaction.setRecipientAccountNumber(readNullable(in));
+        transaction.setRecipientName(readNullable(in));
+        transaction.setStatus(Transaction.TransactionStatus.valueOf(in.readUTF()));
+        transaction.setCreatedAt(LocalDateTime.parse(in.readUTF()));
+        return transaction;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,151 @@
+package com.banking.service;
+
+import com.banking.model.SigningSession;
+import com.banking.model.User;
+import com.banking.payload.SigningSessionResponse;
+import com.banking.repository.SigningSessionRepository;
+import com.banking.repository.UserRepository;
+import com.banking.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Authorizes transfers either with the TPIN (a deliberately slow BCrypt check)
+ * or with a step-up signing token. One TPIN verification opens a session
+ * bound to the device that requested it, limited by a cumulative amount cap
+ * and a short TTL; transfers presenting the token only pay for one
+ * conditional UPDATE.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionSigningService {
+
+    private final SigningSessionRepository signingSessionRepository;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${transfer.signing.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    @Value("${transfer.signing.max-amount-cap:200000}")
+    private BigDecimal maxAmountCap;
+
+    private final AtomicLong tpinChecks = new AtomicLong();
+    private final AtomicLong tpinNanos = new AtomicLong();
+    private final AtomicLong tokenAuthorizations = new AtomicLong();
+
+    public void verifyTpin(UserPrincipal userPrincipal, String tpin) {
+        verifyTpin(userPrincipal.getId(), tpin);
+    }
+
+    public void verifyTpin(Long userId, String tpin) {
+        if (tpin == null || tpin.isEmpty()) {
+            throw new RuntimeException("TPIN is required");
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+
+        long start = System.nanoTime();
+        boolean matches = user.getTpin() != null && passwordEncoder.matches(tpin, user.getTpin());
+        tpinNanos.addAndGet(System.nanoTime() - start);
+        tpinChecks.incrementAndGet();
+
+        if (!matches) {
+            throw new RuntimeException("Invalid TPIN");
+        }
+    }
+
+    @Transactional
+    public SigningSessionResponse openSession(UserPrincipal userPrincipal, String tpin, BigDecimal amountCap,
+            String deviceId) {
+        // Bound to a client-generated device id; the User-Agent is shared by every browser of a build
+        if (deviceId == null || deviceId.isBlank()) {
+            throw new RuntimeException("X-Device-Id header is required to open a signing session");
+        }
+        if (amountCap == null || amountCap.signum() <= 0) {
+            throw new RuntimeException("Amount cap must be greater than zero");
+        }
+        if (amountCap.compareTo(maxAmountCap) > 0) {
+            throw new RuntimeException("Amount cap cannot exceed " + maxAmountCap.toPlainString());
+        }
+
+        verifyTpin(userPrincipal, tpin);
+
+        byte[] raw = new byte[32];
+        secureRandom.nextBytes(raw);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+
+        SigningSession session = new SigningSession();
+        session.setUserId(userPrincipal.getId());
+        session.setTokenHash(sha256(token));
+        session.setDeviceHash(sha256(deviceId));
+        session.setAmountCap(amountCap);
+        session.setExpiresAt(LocalDateTime.now().plusMinutes(ttlMinutes));
+        signingSessionRepository.save(session);
+
+        return new SigningSessionResponse(token, amountCap, session.getExpiresAt());
+    }
+
+    /**
+     * Draws the amount from the session in the caller's transaction, so a
+     * rolled-back transfer gives the amount back to the session.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void consume(Long userId, String signingToken, String deviceId, BigDecimal amount) {
+        if (deviceId == null || deviceId.isBlank()) {
+            throw new RuntimeException("X-Device-Id header is required for signed transfers");
+        }
+        int updated = signingSessionRepository.consume(sha256(signingToken), userId, sha256(deviceId), amount,
+                LocalDateTime.now());
+        if (updated == 0) {
+            throw new RuntimeException("Signing session is invalid, expired or its amount cap is exhausted");
+        }
+        tokenAuthorizations.incrementAndGet();
+    }
+
+    public void revokeAll(Long userId) {
+        signingSessionRepository.deleteByUserId(userId);
+    }
+
+    public Map<String, Object> stats() {
+        long checks = tpinChecks.get();
+        return Map.of(
+                "tpinChecks", checks,
+                "tpinAvgMillis", checks == 0 ? 0.0 : tpinNanos.get() / 1_000_000.0 / checks,
+                "tokenAuthorizations", tokenAuthorizations.get());
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.signing.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        signingSessionRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
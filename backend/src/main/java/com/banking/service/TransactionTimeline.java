@@ -0,0 +1,85 @@
+package com.banking.service;
+
+import com.banking.model.Transaction;
+import com.banking.repository.TransactionRepository;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Newest-first feed over several accounts, built as a k-way merge. Each
+ * account is read in keyset chunks from {@code idx_transactions_account_id},
+ * which returns its rows already in id order; a heap holding each account's
+ * next row picks the overall next one. A page therefore costs one small
+ * index range read per account plus refills for the busiest accounts, and
+ * never sorts the user's whole history.
+ */
+class TransactionTimeline {
+
+    private final TransactionRepository transactionRepository;
+    private final int chunkSize;
+    private final PriorityQueue<AccountStream> heap = new PriorityQueue<>(
+            Comparator.comparing((AccountStream stream) -> stream.head().getId()).reversed());
+
+    TransactionTimeline(TransactionRepository transactionRepository, Collection<Long> accountIds, long beforeId,
+            int chunkSize) {
+        this.transactionRepository = transactionRepository;
+        this.chunkSize = chunkSize;
+        for (Long accountId : accountIds) {
+            AccountStream stream = new AccountStream(accountId, beforeId);
+            if (stream.fill()) {
+                heap.add(stream);
+            }
+        }
+    }
+
+    // Up to max rows, newest first; a later call continues where this one stopped
+    List<Transaction> take(int max) {
+        List<Transaction> rows = new ArrayList<>(Math.min(max, 1024));
+        while (rows.size() < max && !heap.isEmpty()) {
+            AccountStream stream = heap.poll();
+            rows.add(stream.buffer.poll());
+            if (stream.fill()) {
+                heap.add(stream);
+            }
+        }
+        return rows;
+    }
+
+    private class AccountStream {
+
+        private final Long accountId;
+        private final Deque<Transaction> buffer = new ArrayDeque<>();
+        private long beforeId;
+        private boolean exhausted;
+
+        AccountStream(Long accountId, long beforeId) {
+            this.accountId = accountId;
+            this.beforeId = beforeId;
+        }
+
+        Transaction head() {
+            return buffer.peek();
+        }
+
+        // Reads the next chunk once the buffer is drained; false when the account has no more rows
+        boolean fill() {
+            if (buffer.isEmpty() && !exhausted) {
+                List<Transaction> rows = transactionRepository.findPageByAccountId(accountId, beforeId,
+                        PageRequest.of(0, chunkSize));
+                exhausted = rows.size() < chunkSize;
+                if (!rows.isEmpty()) {
+                    buffer.addAll(rows);
+                    beforeId = rows.get(rows.size() - 1).getId();
+                }
+            }
+            return !buffer.isEmpty();
+        }
+    }
+}
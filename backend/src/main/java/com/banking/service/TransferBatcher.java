@@ -0,0 +1,184 @@
+package com.banking.service;
+
+import com.banking.model.Transaction;
+import com.banking.payload.TransferRequest;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Group commit for single transfers. Each committer thread takes the first
+ * waiting transfer, keeps collecting for the window (or until the batch is
+ * full) and hands the batch to the handler, which applies it in one database
+ * transaction and completes every caller's future. While one committer waits
+ * for its commit, another is already filling the next batch. Callers wait a
+ * bounded time and fall back to their own transaction whenever the batcher
+ * cannot take their transfer.
+ */
+@Slf4j
+class TransferBatcher {
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final long windowNanos;
+    private final int maxBatch;
+    private final long timeoutMillis;
+    private final Consumer<List<Pending>> handler;
+    private final ExecutorService committers;
+    private volatile boolean running = true;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong transfers = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong commitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    TransferBatcher(long windowMicros, int maxBatch, int committerThreads, long timeoutMillis,
+            Consumer<List<Pending>> handler) {
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatch = maxBatch;
+        this.timeoutMillis = timeoutMillis;
+        this.handler = handler;
+        this.committers = Executors.newFixedThreadPool(committerThreads);
+        for (int i = 0; i < committerThreads; i++) {
+            committers.execute(this::run);
+        }
+    }
+
+    /**
+     * Queues the transfer and waits for its batch. Throws
+     * {@link BatchAbortedException} when the caller should run the transfer on
+     * its own instead: the batcher is shut down, the batch failed as a whole,
+     * or no committer picked the transfer up within the timeout. A transfer
+     * already inside a committing batch is never handed back, since running it
+     * again could apply it twice.
+     */
+    Transaction execute(Long userId, TransferRequest request) {
+        if (!running) {
+            throw new BatchAbortedException(null);
+        }
+        Pending pending = new Pending(userId, request, new CompletableFuture<>(), new AtomicBoolean(),
+                System.nanoTime());
+        queue.add(pending);
+        // Lost a race with shutdown(), which has already drained the queue
+        if (!running && queue.remove(pending)) {
+            throw new BatchAbortedException(null);
+        }
+        try {
+            try {
+                return pending.result().get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (pending.claim()) {
+                    queue.remove(pending);
+                    timeouts.incrementAndGet();
+                    throw new BatchAbortedException(e);
+                }
+                // A committer took it just now; its batch is committing
+                return pending.result().get(timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Transfer is still being processed; check your transactions before retrying");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(pending.claim() ? "Transfer cancelled"
+                    : "Transfer is still being processed; check your transactions before retrying");
+        }
+    }
+
+    void shutdown() {
+        running = false;
+        committers.shutdownNow();
+        // Callers still waiting fall back to the one-transaction-per-transfer path
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(new BatchAbortedException(null));
+        }
+    }
+
+    Map<String, Object> stats() {
+        long batchCount = batches.get();
+        long transferCount = transfers.get();
+        return Map.of(
+                "batches", batchCount,
+                "transfers", transferCount,
+                "avgBatchSize", batchCount == 0 ? 0.0 : (double) transferCount / batchCount,
+                "avgWaitMillis", transferCount == 0 ? 0.0 : waitNanos.get() / 1_000_000.0 / transferCount,
+                "avgCommitMillis", batchCount == 0 ? 0.0 : commitNanos.get() / 1_000_000.0 / batchCount,
+                "timeouts", timeouts.get(),
+                "queued", queue.size());
+    }
+
+    private void run() {
+        while (running) {
+            List<Pending> batch = new ArrayList<>(maxBatch);
+            try {
+                Pending first = queue.take();
+                // Skips transfers whose caller gave up waiting and ran them on its own
+                if (!first.claim()) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    if (next.claim()) {
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                batch.forEach(pending -> pending.result().completeExceptionally(new BatchAbortedException(e)));
+                return;
+            }
+
+            long start = System.nanoTime();
+            batch.forEach(pending -> waitNanos.addAndGet(start - pending.enqueuedAt()));
+            try {
+                handler.accept(batch);
+            } catch (Throwable e) {
+                // Errors too: a dead committer thread would leave its callers waiting
+                log.warn("Transfer batch of {} failed, retrying individually: {}", batch.size(), e.getMessage());
+                batch.forEach(pending -> pending.result().completeExceptionally(new BatchAbortedException(e)));
+            }
+            commitNanos.addAndGet(System.nanoTime() - start);
+            batches.incrementAndGet();
+            transfers.addAndGet(batch.size());
+        }
+    }
+
+    record Pending(Long userId, TransferRequest request, CompletableFuture<Transaction> result, AtomicBoolean taken,
+            long enqueuedAt) {
+
+        // Exactly one of a committer and a caller that stopped waiting gets the transfer
+        boolean claim() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * The batch could not be committed as a whole; the caller should run its
+     * transfer on its own so one bad leg cannot fail the others.
+     */
+    static class BatchAbortedException extends RuntimeException {
+        BatchAbortedException(Throwable cause) {
+            super("Transfer batch aborted", cause);
+        }
+    }
+}
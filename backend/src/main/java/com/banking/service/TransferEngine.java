@@ -0,0 +1,98 @@
+package com.banking.service;
+
+import com.banking.model.Account;
+import com.banking.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs money movements under a row lock on the debited account and retries
+ * the whole unit of work with backoff when the database reports a deadlock or
+ * lock-wait timeout.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransferEngine {
+
+    private final AccountRepository accountRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${transfer.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${transfer.retry.backoff-ms:20}")
+    private long backoffMs;
+
+    /**
+     * Executes the work in a new transaction. Must not be called from inside an
+     * existing transaction, otherwise a retry would run against a rolled-back
+     * outer transaction.
+     */
+    public <T> T execute(Supplier<T> work) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        int attempt = 1;
+        while (true) {
+            try {
+                return template.execute(status -> work.get());
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Transfer failed after {} attempts due to lock contention", attempt);
+                    throw new RuntimeException("The account is busy. Please try again.", e);
+                }
+                log.debug("Lock contention on attempt {}: {}", attempt, e.getMessage());
+                backoff(attempt++);
+            }
+        }
+    }
+
+    /**
+     * Locks the source account with SELECT ... FOR UPDATE so debits against it
+     * are serialized for the funds check. The destination only receives an
+     * append-only ledger credit and is read without a lock, so a transaction
+     * never holds more than one account lock and cannot deadlock with a
+     * transfer in the opposite direction.
+     */
+    public LockedPair lockForTransfer(String fromAccountNumber, String toAccountNumber) {
+        if (fromAccountNumber == null || toAccountNumber == null) {
+            throw new RuntimeException("Source and destination accounts are required");
+        }
+
+        // Take the lock first so the ledger reads that follow see every debit
+        // committed before it was granted.
+        Account from = lockForDebit(fromAccountNumber);
+        Account to = fromAccountNumber.equals(toAccountNumber) ? from
+                : accountRepository.findByAccountNumber(toAccountNumber)
+                        .orElseThrow(() -> new RuntimeException(
+                                AccountNumberAllocator.hasValidCheckDigit(toAccountNumber)
+                                        ? "Destination account not found"
+                                        : "Destination account not found. Please check the account number for typos."));
+        return new LockedPair(from, to);
+    }
+
+    public Account lockForDebit(String accountNumber) {
+        return accountRepository.findByAccountNumberForUpdate(accountNumber)
+                .orElseThrow(() -> new RuntimeException("Source account not found"));
+    }
+
+    private void backoff(int attempt) {
+        long delay = (backoffMs << (attempt - 1)) + ThreadLocalRandom.current().nextLong(backoffMs + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Transfer interrupted", e);
+        }
+    }
+
+    public record LockedPair(Account from, Account to) {
+    }
+}
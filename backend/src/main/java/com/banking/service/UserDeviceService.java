@@ -1,12 +1,16 @@
 package com.banking.service;
 
+import com.banking.model.SyncChange;
 import com.banking.model.User;
 import com.banking.model.UserDevice;
 import com.banking.repository.UserDeviceRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 
@@ -15,8 +19,11 @@ import java.util.List;
 public class UserDeviceService {
 
     private final UserDeviceRepository userDeviceRepository;
+    private final SyncService syncService;
+    private final PlatformTransactionManager transactionManager;
 
-    @Transactional(propagation = org.springframework.transaction.annotation.Propagation.REQUIRES_NEW)
+    // Best effort: failures are caught outside the write's own transaction, so a failed write
+    // rolls back cleanly instead of failing the login with an UnexpectedRollbackException.
     public void recordDevice(User user, String refreshToken, HttpServletRequest request) {
         try {
             String userAgent = request.getHeader("User-Agent");
@@ -34,7 +41,12 @@ public class UserDeviceService {
             // Default location (could be enhanced with IP geolocation API)
             device.setLocation("Unknown Location");
 
-            userDeviceRepository.save(device);
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            template.executeWithoutResult(status -> {
+                userDeviceRepository.save(device);
+                syncService.recordChange(user.getId(), SyncChange.EntityType.DEVICE, device.getId(), false);
+            });
             System.out.println("Recorded device for user: " + user.getEmail() + " - " + device.getDeviceName());
         } catch (Exception e) {
             System.err.println("Failed to record device for user: " + user.getEmail() + " - " + e.getMessage());
@@ -51,6 +63,7 @@ public class UserDeviceService {
         userDeviceRepository.findById(deviceId).ifPresent(device -> {
             if (device.getUser().getId().equals(userId)) {
                 userDeviceRepository.delete(device);
+                syncService.recordChange(userId, SyncChange.EntityType.DEVICE, deviceId, true);
                 System.out.println("Logged out device: " + deviceId + " for user: " + userId);
             }
         });
@@ -59,6 +72,9 @@ public class UserDeviceService {
     @Transactional
     public void logoutAllOtherDevices(Long userId, String currentRefreshToken) {
         userDeviceRepository.findByRefreshToken(currentRefreshToken).ifPresent(current -> {
+            userDeviceRepository.findIdsByUserId(userId).stream()
+                    .filter(id -> !id.equals(current.getId()))
+                    .forEach(id -> syncService.recordChange(userId, SyncChange.EntityType.DEVICE, id, true));
             userDeviceRepository.deleteOtherDevices(userId, current.getId());
             System.out.println("Logged out all other devices for user: " + userId);
         });
@@ -66,6 +82,8 @@ public class UserDeviceService {
 
     @Transactional
     public void logoutAllDevices(Long userId) {
+        userDeviceRepository.findIdsByUserId(userId)
+                .forEach(id -> syncService.recordChange(userId, SyncChange.EntityType.DEVICE, id, true));
         userDeviceRepository.deleteAllUserDevices(userId);
         System.out.println("Logged out all devices for user: " + userId);
     }
@@ -25,7 +25,18 @@ public class UserService {
     private final com.banking.repository.AccountRepository accountRepository;
     private final com.banking.repository.TransactionRepository transactionRepository;
     private final com.banking.repository.CardRepository cardRepository;
+    private final com.banking.repository.LedgerEntryRepository ledgerEntryRepository;
+    private final com.banking.repository.BalanceSnapshotRepository balanceSnapshotRepository;
+    private final com.banking.repository.HotAccountSlotRepository hotAccountSlotRepository;
+    private final com.banking.repository.DailyBalanceRepository dailyBalanceRepository;
+    private final com.banking.repository.MonthlyInsightRepository monthlyInsightRepository;
+    private final com.banking.repository.MonthlyCounterpartyRepository monthlyCounterpartyRepository;
+    private final com.banking.repository.TransactionSegmentBlockRepository transactionSegmentBlockRepository;
+    private final com.banking.repository.StandingInstructionRepository standingInstructionRepository;
+    private final com.banking.repository.SyncChangeRepository syncChangeRepository;
     private final EmailService emailService;
+    private final TransactionSigningService transactionSigningService;
+    private final PrincipalRevocationService principalRevocationService;
 
     public User registerUser(SignUpRequest signUpRequest) {
         if (userRepository.existsByEmail(signUpRequest.getEmail())) {
@@ -69,6 +80,7 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setEnabled(true);
         userRepository.save(user);
+        principalRevocationService.revoke(user.getId());
     }
 
     public User registerFirebaseUser(com.google.firebase.auth.FirebaseToken token) {
@@ -134,7 +146,9 @@ public class UserService {
             user.setEmail(request.getEmail());
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        principalRevocationService.revoke(userId);
+        return saved;
     }
 
     public User updateUserAvatar(Long userId, String profileImageUrl) {
@@ -153,6 +167,8 @@ public class UserService {
         user.setTpin(passwordEncoder.encode(tpin));
         user.setTpinSet(true);
         userRepository.save(user);
+        transactionSigningService.revokeAll(userId);
+        principalRevocationService.revoke(userId);
     }
 
     @Transactional
@@ -171,6 +187,7 @@ public class UserService {
         user.setTpin(passwordEncoder.encode(newTpin));
         user.setTpinSet(true);
         userRepository.save(user);
+        transactionSigningService.revokeAll(userId);
     }
 
     @Transactional
@@ -183,6 +200,7 @@ public class UserService {
         user.setLoginPin(passwordEncoder.encode(pin));
         user.setLoginPinSet(true);
         userRepository.save(user);
+        principalRevocationService.revoke(userId);
     }
 
     @Transactional
@@ -219,6 +237,7 @@ public class UserService {
         user.setLoginPin(passwordEncoder.encode(newPin));
         user.setLoginPinSet(true);
         userRepository.save(user);
+        principalRevocationService.revoke(userId);
     }
 
     private void verifyUserActionOtp(User user, String otp) {
@@ -266,6 +285,7 @@ public class UserService {
 
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        principalRevocationService.revoke(userId);
 
         // Security notification
         emailService.sendPasswordUpdatedNotification(user.getEmail(), user.getFirstName());
@@ -281,6 +301,8 @@ public class UserService {
         user.setTpin(passwordEncoder.encode(newTpin));
         user.setTpinSet(true);
         userRepository.save(user);
+        transactionSigningService.revokeAll(userId);
+        principalRevocationService.revoke(userId);
     }
 
     public void deleteUserGlobal(Long userId, String otp) {
@@ -319,13 +341,26 @@ public class UserService {
         for (Account account : userAccounts) {
             transactionRepository.deleteByAccountId(account.getId());
             cardRepository.deleteByAccountId(account.getId());
+            ledgerEntryRepository.deleteByAccountId(account.getId());
+            balanceSnapshotRepository.deleteByAccountId(account.getId());
+            hotAccountSlotRepository.deleteByAccountId(account.getId());
+            dailyBalanceRepository.deleteByAccountId(account.getId());
+            monthlyInsightRepository.deleteByAccountId(account.getId());
+            monthlyCounterpartyRepository.deleteByAccountId(account.getId());
+            transactionSegmentBlockRepository.deleteByAccountId(account.getId());
+            // Other users' instructions paying into the account, as in AccountService.deleteAccount
+            standingInstructionRepository.cancelByAccountNumber(account.getAccountNumber());
         }
 
-        // 4. Explicitly clear accounts
+        // 4. Explicitly clear accounts and any open signing sessions
         accountRepository.deleteByUserId(userId);
+        transactionSigningService.revokeAll(userId);
+        standingInstructionRepository.deleteByUserId(userId);
+        syncChangeRepository.deleteByUserId(userId);
 
         // 5. Finally delete the user
         userRepository.delete(user);
+        principalRevocationService.revoke(userId);
     }
 
     public java.util.Map<String, Boolean> getNotificationSettings(Long userId) {
@@ -0,0 +1,144 @@
+package com.banking.service;
+
+import com.banking.model.UserVersion;
+import com.banking.repository.UserVersionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-user versions behind the strong ETags of account, transaction and card
+ * reads, so a poll that finds nothing changed is answered with
+ * {@code 304 Not Modified} after a single primary-key read. Transfers and
+ * account, card and device changes bump every user they touch once their
+ * transaction has committed: a version is never visible before its data, and
+ * hot accounts never wait on a version row lock. Committed bumps are applied
+ * by one background thread, because the committing thread still holds its
+ * connection and a second one per commit can drain the pool under load; a
+ * poll in that short gap may still get a 304. Changes that touch every
+ * user, such as archival, bump the shared row 0 instead.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserVersionService {
+
+    private static final Long SHARED = 0L;
+
+    private final UserVersionRepository userVersionRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // Users whose data committed but whose version is not bumped yet
+    private final Set<Long> committed = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor();
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+    }
+
+    /**
+     * Read before the data it describes and routed like it, so a response is
+     * never older than its tag; if a write lands in between, the tag is older
+     * and the next poll simply fetches again.
+     */
+    @Transactional(readOnly = true)
+    public String etag(Long userId) {
+        long own = 0;
+        long shared = 0;
+        for (UserVersion row : userVersionRepository.findWithShared(userId)) {
+            if (SHARED.equals(row.getUserId())) {
+                shared = row.getVersion();
+            } else {
+                own = row.getVersion();
+            }
+        }
+        return "u" + userId + "-" + own + "-" + shared;
+    }
+
+    // Deferred to the commit of the caller's transaction; a rolled-back write bumps nothing
+    public void bumpAfterCommit(Long... userIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(new HashSet<>(Arrays.asList(userIds)));
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        Collections.addAll(pending.userIds, userIds);
+    }
+
+    public void bumpShared() {
+        bumpAfterCommit(SHARED);
+    }
+
+    private void bumpCommitted(Set<Long> userIds) {
+        committed.addAll(userIds);
+        if (flushQueued.compareAndSet(false, true)) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    // Bumps everything committed since the last flush in one transaction
+    private void flush() {
+        flushQueued.set(false);
+        Set<Long> userIds = new HashSet<>();
+        for (Long userId : committed) {
+            if (committed.remove(userId)) {
+                userIds.add(userId);
+            }
+        }
+        if (!userIds.isEmpty()) {
+            bump(userIds);
+        }
+    }
+
+    // The write has already committed; if this fails, the tags catch up with the user's next change
+    private void bump(Set<Long> userIds) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            // Sorted so two bumps of overlapping users cannot deadlock
+            template.executeWithoutResult(status -> new TreeSet<>(userIds).forEach(userVersionRepository::bump));
+        } catch (Exception e) {
+            log.warn("Could not bump versions of users {}: {}", userIds, e.getMessage());
+        }
+    }
+
+    // Users touched by one transaction, so a group-commit batch bumps each of them once
+    private class Pending implements TransactionSynchronization {
+
+        private final Set<Long> userIds = new HashSet<>();
+
+        @Override
+        public void afterCommit() {
+            bumpCommitted(userIds);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(UserVersionService.this);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.banking;
+
+import com.banking.model.Account;
+import com.banking.model.Role;
+import com.banking.model.User;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.RoleRepository;
+import com.banking.repository.UserRepository;
+import com.banking.security.UserPrincipal;
+import com.banking.service.LedgerService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opens users and funded accounts for tests that run against the "test"
+ * profile's database. Numbers and emails are unique per JVM, so tests sharing
+ * a context never see each other's rows.
+ */
+public class TestBank {
+
+    public static final String TPIN = "1234";
+
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final RoleRepository roleRepository;
+    private final LedgerService ledgerService;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate template;
+
+    public TestBank(ApplicationContext context) {
+        this.userRepository = context.getBean(UserRepository.class);
+        this.accountRepository = context.getBean(AccountRepository.class);
+        this.roleRepository = context.getBean(RoleRepository.class);
+        this.ledgerService = context.getBean(LedgerService.class);
+        this.passwordEncoder = context.getBean(PasswordEncoder.class);
+        this.template = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    public User user(Role.RoleName... roles) {
+        long n = sequence.incrementAndGet();
+        return template.execute(status -> {
+            User user = new User();
+            user.setEmail("user" + n + "@bank.test");
+            user.setPassword("unused");
+            user.setFirstName("User");
+            user.setLastName(Long.toString(n));
+            user.setTpin(passwordEncoder.encode(TPIN));
+            user.setTpinSet(true);
+            for (Role.RoleName role : roles) {
+                user.getRoles().add(roleRepository.findByName(role).orElseThrow());
+            }
+            return userRepository.save(user);
+        });
+    }
+
+    public Account account(User user, String balance) {
+        long n = sequence.incrementAndGet();
+        return template.execute(status -> {
+            Account account = new Account();
+            account.setUser(user);
+            account.setAccountNumber(String.format("8%010d", n));
+            account.setPhoneNumber("+910000000000");
+            account.setAccountType(Account.AccountType.SAVINGS);
+            account.setBalance(new BigDecimal(balance));
+            return accountRepository.save(account);
+        });
+    }
+
+    public BigDecimal balance(Account account) {
+        return ledgerService.balanceOf(accountRepository.findById(account.getId()).orElseThrow());
+    }
+
+    public static UserPrincipal principal(User user) {
+        return UserPrincipal.create(user);
+    }
+}
@@ -0,0 +1,92 @@
+package com.banking.security;
+
+import com.banking.TestBank;
+import com.banking.model.Role;
+import com.banking.model.User;
+import com.banking.repository.UserRepository;
+import com.banking.service.PrincipalRevocationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "auth.stateless.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PrincipalRevocationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private PrincipalRevocationService principalRevocationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void revokedTokenNoLongerCarriesItsClaims() throws Exception {
+        User admin = new TestBank(context).user(Role.RoleName.ROLE_USER, Role.RoleName.ROLE_ADMIN);
+        String token = "Bearer " + accessToken(admin);
+        awaitRevocationPoll();
+
+        mockMvc.perform(get("/api/admin/stats").header("Authorization", token)).andExpect(status().isOk());
+
+        // A role change made straight in the database; the token's claims still say ADMIN
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User user = userRepository.findById(admin.getId()).orElseThrow();
+            user.getRoles().removeIf(role -> role.getName() == Role.RoleName.ROLE_ADMIN);
+        });
+        mockMvc.perform(get("/api/admin/stats").header("Authorization", token)).andExpect(status().isOk());
+
+        principalRevocationService.revoke(admin.getId());
+
+        mockMvc.perform(get("/api/admin/stats").header("Authorization", token)).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/accounts").header("Authorization", token)).andExpect(status().isOk());
+    }
+
+    @Test
+    void tokenIssuedAfterRevocationIsTrusted() throws Exception {
+        User admin = new TestBank(context).user(Role.RoleName.ROLE_USER, Role.RoleName.ROLE_ADMIN);
+        principalRevocationService.revoke(admin.getId());
+        String token = "Bearer " + accessToken(admin);
+        awaitRevocationPoll();
+
+        assertTrue(jwtTokenProvider.validateAndExtract(token.substring(7)).orElseThrow().carriesPrincipal());
+        mockMvc.perform(get("/api/admin/stats").header("Authorization", token)).andExpect(status().isOk());
+    }
+
+    private String accessToken(User user) {
+        UserPrincipal principal = TestBank.principal(user);
+        return jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    // Claims are only trusted once the revocations have been loaded
+    private void awaitRevocationPoll() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!principalRevocationService.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(principalRevocationService.isReady());
+    }
+}
@@ -0,0 +1,70 @@
+package com.banking.service;
+
+import com.banking.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency of single transfers through group commit at
+ * different windows: AccountService.commitBatch, the ledger's JDBC batches and
+ * the database commit all run for real. Compare with
+ * {@link TransactionPerTransferBenchmark}. Run with
+ * {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main GroupCommit|TransactionPerTransfer"}.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(TransferBenchmarkDatabase.SENDERS)
+@State(Scope.Benchmark)
+public class GroupCommitBenchmark {
+
+    @Param({ "1000", "2000", "5000" })
+    public long windowMicros;
+
+    private TransferBenchmarkDatabase database;
+    private AccountService accountService;
+
+    @Setup
+    public void start() {
+        database = new TransferBenchmarkDatabase(
+                "--transfer.group-commit.enabled=true",
+                "--transfer.group-commit.window-micros=" + windowMicros);
+        accountService = database.accountService();
+    }
+
+    @TearDown
+    public void stop() {
+        database.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Sender {
+        TransferBenchmarkDatabase.Sender sender;
+
+        @Setup
+        public void pick(GroupCommitBenchmark benchmark) {
+            sender = benchmark.database.nextSender();
+        }
+    }
+
+    @Benchmark
+    public Transaction groupCommit(Sender thread) {
+        return accountService.transferPreAuthorized(thread.sender.userId(), thread.sender.request(), null);
+    }
+}
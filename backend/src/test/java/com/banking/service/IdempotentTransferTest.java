@@ -0,0 +1,110 @@
+package com.banking.service;
+
+import com.banking.TestBank;
+import com.banking.model.Account;
+import com.banking.model.Transaction;
+import com.banking.model.User;
+import com.banking.payload.TransferRequest;
+import com.banking.repository.TransactionRepository;
+import com.banking.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotentTransferTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void replayReturnsTheSameTransaction() {
+        TestBank bank = new TestBank(context);
+        User user = bank.user();
+        Account from = bank.account(user, "100.00");
+        Account to = bank.account(bank.user(), "0.00");
+        UserPrincipal principal = TestBank.principal(user);
+        String key = UUID.randomUUID().toString();
+
+        Transaction first = accountService.transferMoney(principal, request(from, to, TestBank.TPIN), key);
+        Transaction replay = accountService.transferMoney(principal, request(from, to, TestBank.TPIN), key);
+
+        assertEquals(first.getTransactionId(), replay.getTransactionId());
+        assertEquals(1, transactionRepository.findByAccountIdOrderByIdDesc(from.getId()).size());
+        assertEquals(0, new BigDecimal("75.00").compareTo(bank.balance(from)));
+        assertEquals(0, new BigDecimal("25.00").compareTo(bank.balance(to)));
+    }
+
+    @Test
+    void concurrentRetriesMoveMoneyOnce() throws Exception {
+        TestBank bank = new TestBank(context);
+        User user = bank.user();
+        Account from = bank.account(user, "100.00");
+        Account to = bank.account(bank.user(), "0.00");
+        UserPrincipal principal = TestBank.principal(user);
+        String key = UUID.randomUUID().toString();
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<Transaction>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Callable<Transaction> retry = () -> accountService.transferMoney(principal,
+                    request(from, to, TestBank.TPIN), key);
+            results.add(pool.submit(retry));
+        }
+        String transactionId = results.get(0).get().getTransactionId();
+        for (Future<Transaction> result : results) {
+            assertEquals(transactionId, result.get().getTransactionId());
+        }
+        pool.shutdown();
+
+        assertEquals(1, transactionRepository.findByAccountIdOrderByIdDesc(from.getId()).size());
+        assertEquals(0, new BigDecimal("75.00").compareTo(bank.balance(from)));
+    }
+
+    @Test
+    void replayStillRequiresTheTpin() {
+        TestBank bank = new TestBank(context);
+        User user = bank.user();
+        Account from = bank.account(user, "100.00");
+        Account to = bank.account(bank.user(), "0.00");
+        UserPrincipal principal = TestBank.principal(user);
+        String key = UUID.randomUUID().toString();
+
+        accountService.transferMoney(principal, request(from, to, TestBank.TPIN), key);
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> accountService.transferMoney(principal, request(from, to, "0000"), key));
+        assertEquals("Invalid TPIN", e.getMessage());
+    }
+
+    private static TransferRequest request(Account from, Account to, String tpin) {
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber(from.getAccountNumber());
+        request.setToAccountNumber(to.getAccountNumber());
+        request.setAmount(new BigDecimal("25.00"));
+        request.setDescription("Rent");
+        request.setTpin(tpin);
+        return request;
+    }
+}
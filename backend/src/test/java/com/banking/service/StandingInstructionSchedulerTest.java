@@ -0,0 +1,133 @@
+package com.banking.service;
+
+import com.banking.TestBank;
+import com.banking.model.Account;
+import com.banking.model.StandingInstruction;
+import com.banking.model.Transaction;
+import com.banking.model.User;
+import com.banking.payload.StandingInstructionRequest;
+import com.banking.payload.TransferRequest;
+import com.banking.repository.StandingInstructionRepository;
+import com.banking.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StandingInstructionSchedulerTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private StandingInstructionService standingInstructionService;
+
+    @Autowired
+    private StandingInstructionScheduler scheduler;
+
+    @Autowired
+    private StandingInstructionRepository standingInstructionRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void concurrentPollsRunAnOccurrenceOnce() throws Exception {
+        TestBank bank = new TestBank(context);
+        User user = bank.user();
+        Account from = bank.account(user, "100.00");
+        Account to = bank.account(bank.user(), "0.00");
+        StandingInstruction instruction = create(user, from, to);
+
+        // Stands in for several instances polling the same table
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> polls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            polls.add(pool.submit(() -> {
+                start.await();
+                scheduler.poll();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> poll : polls) {
+            poll.get();
+        }
+        pool.shutdown();
+
+        StandingInstruction after = awaitOccurrence(instruction.getId(), 1);
+        assertEquals(1, transactionRepository.findByAccountIdOrderByIdDesc(from.getId()).size());
+        assertEquals(0, new BigDecimal("90.00").compareTo(bank.balance(from)));
+        assertEquals(0, new BigDecimal("10.00").compareTo(bank.balance(to)));
+        assertEquals(transactionRepository.findByAccountIdOrderByIdDesc(from.getId()).get(0).getTransactionId(),
+                after.getLastTransactionId());
+    }
+
+    @Test
+    void occurrenceTransferredBeforeACrashIsNotRepeated() throws Exception {
+        TestBank bank = new TestBank(context);
+        User user = bank.user();
+        Account from = bank.account(user, "100.00");
+        Account to = bank.account(bank.user(), "0.00");
+        StandingInstruction instruction = create(user, from, to);
+
+        // An instance made the transfer, then died before recording the occurrence
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber(from.getAccountNumber());
+        request.setToAccountNumber(to.getAccountNumber());
+        request.setAmount(instruction.getAmount());
+        request.setDescription(instruction.getDescription());
+        Transaction earlier = accountService.transferPreAuthorized(user.getId(), request,
+                "SI-" + instruction.getId() + "-0");
+
+        scheduler.poll();
+
+        StandingInstruction after = awaitOccurrence(instruction.getId(), 1);
+        assertEquals(earlier.getTransactionId(), after.getLastTransactionId());
+        assertEquals(1, transactionRepository.findByAccountIdOrderByIdDesc(from.getId()).size());
+        assertEquals(0, new BigDecimal("90.00").compareTo(bank.balance(from)));
+    }
+
+    private StandingInstruction create(User user, Account from, Account to) {
+        StandingInstructionRequest request = new StandingInstructionRequest();
+        request.setFromAccountNumber(from.getAccountNumber());
+        request.setToAccountNumber(to.getAccountNumber());
+        request.setAmount(new BigDecimal("10.00"));
+        request.setDescription("Pocket money");
+        request.setFrequency(StandingInstruction.Frequency.WEEKLY);
+        request.setTpin(TestBank.TPIN);
+        return standingInstructionService.create(TestBank.principal(user), request);
+    }
+
+    // Occurrences run on the scheduler's worker pool
+    private StandingInstruction awaitOccurrence(Long id, int occurrence) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            StandingInstruction instruction = standingInstructionRepository.findById(id).orElseThrow();
+            if (instruction.getOccurrence() >= occurrence) {
+                assertEquals(occurrence, instruction.getOccurrence());
+                return instruction;
+            }
+            Thread.sleep(50);
+        }
+        return fail("Standing instruction " + id + " did not reach occurrence " + occurrence);
+    }
+}
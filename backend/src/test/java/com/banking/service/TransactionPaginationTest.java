@@ -0,0 +1,123 @@
+package com.banking.service;
+
+import com.banking.TestBank;
+import com.banking.model.Account;
+import com.banking.model.Transaction;
+import com.banking.model.User;
+import com.banking.payload.TransactionPage;
+import com.banking.payload.TransferRequest;
+import com.banking.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionPaginationTest {
+
+    private static final int PAGE = 10;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Test
+    void accountPagesStayStableWhileNewTransfersArrive() {
+        TestBank bank = new TestBank(context);
+        User owner = bank.user();
+        User other = bank.user();
+        Account account = bank.account(owner, "1000.00");
+        Account counterparty = bank.account(other, "1000.00");
+        UserPrincipal principal = TestBank.principal(owner);
+        for (int i = 0; i < 25; i++) {
+            transfer(owner, account, counterparty);
+        }
+
+        List<Long> expected = ids(accountService.getAccountTransactions(principal, account.getId()));
+        List<Long> paged = pageThrough(cursor -> {
+            // Newer rows land ahead of the cursor and must not shift the pages still to come
+            if (cursor != null) {
+                transfer(owner, account, counterparty);
+            }
+            return accountService.getAccountTransactionsPage(principal, account.getId(), cursor, PAGE);
+        });
+
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    void timelinePagesMergeAccountsWithoutGapsOrRepeats() {
+        TestBank bank = new TestBank(context);
+        User owner = bank.user();
+        User other = bank.user();
+        Account savings = bank.account(owner, "1000.00");
+        Account current = bank.account(owner, "1000.00");
+        Account counterparty = bank.account(other, "1000.00");
+        UserPrincipal principal = TestBank.principal(owner);
+        for (int i = 0; i < 12; i++) {
+            transfer(owner, savings, counterparty);
+            transfer(owner, current, counterparty);
+            if (i % 3 == 0) {
+                transfer(owner, savings, current);
+            }
+        }
+
+        List<Long> expected = ids(accountService.getAllUserTransactions(principal));
+        List<Long> paged = pageThrough(cursor -> {
+            if (cursor != null) {
+                transfer(owner, current, counterparty);
+            }
+            return accountService.getAllUserTransactionsPage(principal, cursor, PAGE);
+        });
+
+        assertEquals(expected, paged);
+    }
+
+    private List<Long> pageThrough(Function<String, TransactionPage> fetch) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        TransactionPage page;
+        do {
+            page = fetch.apply(cursor);
+            assertTrue(page.getItems().size() <= PAGE);
+            assertEquals(page.isHasMore(), page.getNextCursor() != null);
+            for (Transaction transaction : page.getItems()) {
+                assertTrue(ids.isEmpty() || transaction.getId() < ids.get(ids.size() - 1),
+                        "ids must strictly descend across pages");
+                ids.add(transaction.getId());
+            }
+            cursor = page.getNextCursor();
+        } while (page.isHasMore());
+
+        assertFalse(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+        return ids;
+    }
+
+    private void transfer(User owner, Account from, Account to) {
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber(from.getAccountNumber());
+        request.setToAccountNumber(to.getAccountNumber());
+        request.setAmount(new BigDecimal("1.00"));
+        request.setDescription("Pagination test");
+        accountService.transferPreAuthorized(owner.getId(), request, null);
+    }
+
+    private static List<Long> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getId).toList();
+    }
+}
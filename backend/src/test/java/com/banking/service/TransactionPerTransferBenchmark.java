@@ -0,0 +1,60 @@
+package com.banking.service;
+
+import com.banking.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baseline for {@link GroupCommitBenchmark}: the same transfers with group
+ * commit off, so every transfer is its own locked transaction and commit.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(TransferBenchmarkDatabase.SENDERS)
+@State(Scope.Benchmark)
+public class TransactionPerTransferBenchmark {
+
+    private TransferBenchmarkDatabase database;
+    private AccountService accountService;
+
+    @Setup
+    public void start() {
+        database = new TransferBenchmarkDatabase("--transfer.group-commit.enabled=false");
+        accountService = database.accountService();
+    }
+
+    @TearDown
+    public void stop() {
+        database.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Sender {
+        TransferBenchmarkDatabase.Sender sender;
+
+        @Setup
+        public void pick(TransactionPerTransferBenchmark benchmark) {
+            sender = benchmark.database.nextSender();
+        }
+    }
+
+    @Benchmark
+    public Transaction transactionPerTransfer(Sender thread) {
+        return accountService.transferPreAuthorized(thread.sender.userId(), thread.sender.request(), null);
+    }
+}
@@ -0,0 +1,109 @@
+package com.banking.service;
+
+import com.banking.model.Transaction;
+import com.banking.model.TransactionSegmentBlock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TransactionSegmentFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void blocksRoundTripAcrossAccountsAndSplits() throws Exception {
+        Path path = dir.resolve("segment.bin");
+        List<Transaction> first = new ArrayList<>();
+        List<Transaction> second = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            first.add(transaction(id, id % 2 == 0));
+        }
+        for (long id = 6; id <= 7; id++) {
+            second.add(transaction(id, false));
+        }
+
+        List<TransactionSegmentBlock> blocks;
+        try (TransactionSegmentFile.Writer writer = new TransactionSegmentFile.Writer(path, 2)) {
+            for (Transaction transaction : first) {
+                writer.add(transaction, 10L);
+            }
+            for (Transaction transaction : second) {
+                writer.add(transaction, 20L);
+            }
+            blocks = writer.finish();
+            assertEquals(7, writer.rows());
+            assertEquals(Files.size(path), writer.size());
+        }
+
+        // Account 10 splits into 2 + 2 + 1 rows, account 20 starts a block of its own
+        assertEquals(List.of(10L, 10L, 10L, 20L), blocks.stream().map(TransactionSegmentBlock::getAccountId).toList());
+        assertEquals(List.of(2, 2, 1, 2), blocks.stream().map(TransactionSegmentBlock::getRowCount).toList());
+
+        List<Transaction> read = new ArrayList<>();
+        for (TransactionSegmentBlock block : blocks) {
+            read.addAll(TransactionSegmentFile.readBlock(path, block));
+        }
+        List<Transaction> expected = new ArrayList<>(first);
+        expected.addAll(second);
+        assertEquals(expected.size(), read.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameRow(expected.get(i), read.get(i));
+        }
+    }
+
+    @Test
+    void nullFieldsStayNull() throws Exception {
+        Path path = dir.resolve("nulls.bin");
+        List<TransactionSegmentBlock> blocks;
+        try (TransactionSegmentFile.Writer writer = new TransactionSegmentFile.Writer(path, 100)) {
+            writer.add(transaction(1L, true), 10L);
+            blocks = writer.finish();
+        }
+
+        Transaction read = TransactionSegmentFile.readBlock(path, blocks.get(0)).get(0);
+        assertNull(read.getBalanceAfter());
+        assertNull(read.getDescription());
+        assertNull(read.getRecipientAccountNumber());
+        assertNull(read.getRecipientName());
+    }
+
+    private static Transaction transaction(long id, boolean nulls) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setTransactionId("TXN" + id);
+        transaction.setType(Transaction.TransactionType.TRANSFER);
+        transaction.setAmount(new BigDecimal("12.50").add(BigDecimal.valueOf(id)));
+        transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+        transaction.setCreatedAt(LocalDateTime.of(2024, 3, 1, 9, 30).plusMinutes(id));
+        if (!nulls) {
+            transaction.setBalanceAfter(new BigDecimal("1000.00").subtract(BigDecimal.valueOf(id)));
+            transaction.setDescription("Rent " + id);
+            transaction.setRecipientAccountNumber("ACC" + id);
+            transaction.setRecipientName("Recipient " + id);
+        }
+        return transaction;
+    }
+
+    private static void assertSameRow(Transaction expected, Transaction actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTransactionId(), actual.getTransactionId());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getAmount(), actual.getAmount());
+        assertEquals(expected.getBalanceAfter(), actual.getBalanceAfter());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getRecipientAccountNumber(), actual.getRecipientAccountNumber());
+        assertEquals(expected.getRecipientName(), actual.getRecipientName());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+    }
+}
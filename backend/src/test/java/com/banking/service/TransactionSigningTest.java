@@ -0,0 +1,119 @@
+package com.banking.service;
+
+import com.banking.TestBank;
+import com.banking.model.Account;
+import com.banking.model.User;
+import com.banking.payload.TransferRequest;
+import com.banking.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionSigningTest {
+
+    private static final String DEVICE = "device-1";
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionSigningService transactionSigningService;
+
+    @Test
+    void sessionIsDrawnDownOnceAcrossConcurrentTransfers() throws Exception {
+        TestBank bank = new TestBank(context);
+        User user = bank.user();
+        UserPrincipal principal = TestBank.principal(user);
+        Account to = bank.account(bank.user(), "0.00");
+        // Separate source accounts, so the transfers do not queue on one account lock
+        List<Account> sources = List.of(bank.account(user, "100.00"), bank.account(user, "100.00"),
+                bank.account(user, "100.00"));
+        String token = transactionSigningService.openSession(principal, TestBank.TPIN, new BigDecimal("100.00"),
+                DEVICE).getSigningToken();
+
+        ExecutorService pool = Executors.newFixedThreadPool(sources.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (Account from : sources) {
+            results.add(pool.submit(() -> {
+                start.await();
+                try {
+                    accountService.transferMoney(principal, signed(from, to, token, DEVICE, "60.00"), null);
+                    return true;
+                } catch (RuntimeException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            succeeded += result.get() ? 1 : 0;
+        }
+        pool.shutdown();
+
+        assertEquals(1, succeeded);
+        assertEquals(0, new BigDecimal("60.00").compareTo(bank.balance(to)));
+    }
+
+    @Test
+    void exhaustedSessionIsRejected() {
+        TestBank bank = new TestBank(context);
+        User user = bank.user();
+        UserPrincipal principal = TestBank.principal(user);
+        Account from = bank.account(user, "100.00");
+        Account to = bank.account(bank.user(), "0.00");
+        String token = transactionSigningService.openSession(principal, TestBank.TPIN, new BigDecimal("50.00"),
+                DEVICE).getSigningToken();
+
+        accountService.transferMoney(principal, signed(from, to, token, DEVICE, "50.00"), null);
+
+        assertThrows(RuntimeException.class,
+                () -> accountService.transferMoney(principal, signed(from, to, token, DEVICE, "0.01"), null));
+        assertEquals(0, new BigDecimal("50.00").compareTo(bank.balance(from)));
+    }
+
+    @Test
+    void sessionIsBoundToItsDevice() {
+        TestBank bank = new TestBank(context);
+        User user = bank.user();
+        UserPrincipal principal = TestBank.principal(user);
+        Account from = bank.account(user, "100.00");
+        Account to = bank.account(bank.user(), "0.00");
+        String token = transactionSigningService.openSession(principal, TestBank.TPIN, new BigDecimal("50.00"),
+                DEVICE).getSigningToken();
+
+        assertThrows(RuntimeException.class,
+                () -> accountService.transferMoney(principal, signed(from, to, token, "device-2", "10.00"), null));
+        assertEquals(0, new BigDecimal("100.00").compareTo(bank.balance(from)));
+    }
+
+    private static TransferRequest signed(Account from, Account to, String token, String deviceId, String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber(from.getAccountNumber());
+        request.setToAccountNumber(to.getAccountNumber());
+        request.setAmount(new BigDecimal(amount));
+        request.setDescription("Signed transfer");
+        request.setSigningToken(token);
+        request.setDeviceId(deviceId);
+        return request;
+    }
+}
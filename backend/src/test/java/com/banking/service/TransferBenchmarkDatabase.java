@@ -0,0 +1,97 @@
+package com.banking.service;
+
+import com.banking.BankingSystemApplication;
+import com.banking.model.Account;
+import com.banking.model.User;
+import com.banking.payload.TransferRequest;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.UserRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts the application for the transfer benchmarks and opens one funded
+ * account per sender. The "test" profile's H2 database is kept in a file so
+ * every commit reaches disk; -Dbenchmark.datasource.url points the run at
+ * another database, whose driver and dialect are then passed the same way.
+ * The schema is dropped when the run ends, so only use a scratch database.
+ */
+final class TransferBenchmarkDatabase {
+
+    static final int SENDERS = 64;
+
+    private final ConfigurableApplicationContext context;
+    private final List<Sender> senders = new ArrayList<>(SENDERS);
+    private final AtomicInteger nextSender = new AtomicInteger();
+
+    TransferBenchmarkDatabase(String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--spring.datasource.url=" + System.getProperty("benchmark.datasource.url",
+                        "jdbc:h2:file:./target/transfer-benchmark;MODE=MySQL"),
+                // Notifications stay in the outbox instead of competing with the transfers
+                "--outbox.relay.interval-ms=3600000",
+                "--logging.level.root=WARN"));
+        args.addAll(List.of(properties));
+        context = SpringApplication.run(BankingSystemApplication.class, args.toArray(String[]::new));
+        seed();
+    }
+
+    AccountService accountService() {
+        return context.getBean(AccountService.class);
+    }
+
+    // Each benchmark thread sends from its own account to the next one
+    Sender nextSender() {
+        return senders.get(nextSender.getAndIncrement() % SENDERS);
+    }
+
+    void close() {
+        context.close();
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        List<Account> accounts = new ArrayList<>(SENDERS);
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            for (int i = 0; i < SENDERS; i++) {
+                User user = new User();
+                user.setEmail("sender" + i + "@benchmark.test");
+                user.setPassword("unused");
+                user.setFirstName("Sender");
+                user.setLastName(Integer.toString(i));
+                user = userRepository.save(user);
+
+                Account account = new Account();
+                account.setUser(user);
+                account.setAccountNumber(String.format("9%010d", i));
+                account.setPhoneNumber("+910000000000");
+                account.setAccountType(Account.AccountType.SAVINGS);
+                account.setBalance(new BigDecimal("1000000000.00"));
+                accounts.add(accountRepository.save(account));
+            }
+        });
+
+        for (int i = 0; i < SENDERS; i++) {
+            Account from = accounts.get(i);
+            TransferRequest request = new TransferRequest();
+            request.setFromAccountNumber(from.getAccountNumber());
+            request.setToAccountNumber(accounts.get((i + 1) % SENDERS).getAccountNumber());
+            request.setAmount(BigDecimal.ONE);
+            request.setDescription("Benchmark");
+            senders.add(new Sender(from.getUser().getId(), request));
+        }
+    }
+
+    record Sender(Long userId, TransferRequest request) {
+    }
+}
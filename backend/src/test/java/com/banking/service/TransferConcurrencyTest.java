@@ -0,0 +1,99 @@
+package com.banking.service;
+
+import com.banking.TestBank;
+import com.banking.model.Account;
+import com.banking.model.User;
+import com.banking.payload.TransferRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferConcurrencyTest {
+
+    private static final int ACCOUNTS = 6;
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_THREAD = 25;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Test
+    void concurrentTransfersKeepBalancesConsistent() throws Exception {
+        TestBank bank = new TestBank(context);
+        List<User> users = new ArrayList<>();
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            User user = bank.user();
+            users.add(user);
+            accounts.add(bank.account(user, "100.00"));
+        }
+
+        // Random pairs in both directions, with amounts large enough that some transfers hit insufficient funds
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<BigDecimal[]>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(pool.submit(() -> {
+                BigDecimal[] net = new BigDecimal[ACCOUNTS];
+                Arrays.fill(net, BigDecimal.ZERO);
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 60)).setScale(2);
+
+                    TransferRequest request = new TransferRequest();
+                    request.setFromAccountNumber(accounts.get(from).getAccountNumber());
+                    request.setToAccountNumber(accounts.get(to).getAccountNumber());
+                    request.setAmount(amount);
+                    request.setDescription("Concurrency test");
+                    try {
+                        accountService.transferPreAuthorized(users.get(from).getId(), request, null);
+                        net[from] = net[from].subtract(amount);
+                        net[to] = net[to].add(amount);
+                    } catch (RuntimeException e) {
+                        // Insufficient funds or lock contention; the transfer did not happen
+                    }
+                }
+                return net;
+            }));
+        }
+
+        BigDecimal[] expected = new BigDecimal[ACCOUNTS];
+        Arrays.fill(expected, new BigDecimal("100.00"));
+        for (Future<BigDecimal[]> result : results) {
+            BigDecimal[] net = result.get();
+            for (int i = 0; i < ACCOUNTS; i++) {
+                expected[i] = expected[i].add(net[i]);
+            }
+        }
+        pool.shutdown();
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < ACCOUNTS; i++) {
+            BigDecimal balance = bank.balance(accounts.get(i));
+            assertEquals(0, expected[i].compareTo(balance), "balance of account " + i);
+            assertTrue(balance.signum() >= 0, "account " + i + " overdrawn");
+            total = total.add(balance);
+        }
+        assertEquals(0, new BigDecimal("600.00").compareTo(total));
+    }
+}